@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.CompiledFilter;
+import ai.singlr.scimsql.Filter;
+import ai.singlr.scimsql.FilterCodec;
+import ai.singlr.scimsql.ScimEngine;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares loading a saved filter from its text through ANTLR with decoding its {@link FilterCodec}
+ * record, both as a tree and as a {@link CompiledFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CodecBenchmark {
+
+  @Param({"simpleEq", "andChain", "nested", "largeIn", "uuid", "mixed"})
+  public String shape;
+
+  private final ScimEngine engine = new ScimEngine();
+  private String expression;
+  private Filter filter;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() {
+    expression = FilterCorpus.get(shape);
+    filter = engine.parseFilter(expression, "t", null);
+    encoded = FilterCodec.encode(filter);
+  }
+
+  @Benchmark
+  public Filter parse() {
+    return engine.parseFilter(expression, "t", null);
+  }
+
+  @Benchmark
+  public Filter decode() {
+    return engine.decodeFilter(ByteBuffer.wrap(encoded), "t", null);
+  }
+
+  @Benchmark
+  public CompiledFilter compile() {
+    return engine.compileFilter(expression, null);
+  }
+
+  @Benchmark
+  public CompiledFilter decodeCompiled() {
+    return engine.decodeCompiled(ByteBuffer.wrap(encoded), null);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return FilterCodec.encode(filter);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/** Representative SCIM filters, keyed by the shape name used as a JMH {@code @Param}. */
+public final class FilterCorpus {
+
+  public static final Map<String, String> FILTERS = build();
+
+  private FilterCorpus() {}
+
+  public static String get(String shape) {
+    var filter = FILTERS.get(shape);
+    if (filter == null) {
+      throw new IllegalArgumentException("Unknown filter shape: " + shape);
+    }
+    return filter;
+  }
+
+  private static Map<String, String> build() {
+    var filters = new LinkedHashMap<String, String>();
+    filters.put("simpleEq", "userName eq \"john.doe@example.com\"");
+    filters.put(
+        "andChain",
+        IntStream.range(0, 16)
+            .mapToObj(i -> i % 2 == 0 ? "attr" + i + " eq \"v" + i + "\"" : "attr" + i + " gt " + i)
+            .collect(Collectors.joining(" and ")));
+    filters.put(
+        "orChain",
+        IntStream.range(0, 32)
+            .mapToObj(i -> "userName eq \"user" + i + "@example.com\"")
+            .collect(Collectors.joining(" or ")));
+    filters.put(
+        "nested",
+        "not (active eq false) and ((title sw \"Eng\" or title co \"Dev\") and "
+            + "(department eq \"R&D\" or (costCenter ge 4000 and costCenter lt 5000)))");
+    filters.put(
+        "largeIn",
+        IntStream.range(0, 500)
+            .mapToObj(i -> "\"ext-" + i + "\"")
+            .collect(Collectors.joining(", ", "externalId in [", "]")));
+    filters.put(
+        "json",
+        "metadata eq \"${\\\"role\\\": \\\"admin\\\", \\\"tags\\\": [\\\"a\\\", \\\"b\\\"]}\" "
+            + "and settings eq \"${\\\"theme\\\": \\\"dark\\\"}\"");
+    filters.put(
+        "uuid",
+        "id eq \"#123e4567-e89b-12d3-a456-426614174000\" or managerId in "
+            + "[\"#550e8400-e29b-41d4-a716-446655440000\", "
+            + "\"#6ba7b810-9dad-11d1-80b4-00c04fd430c8\", "
+            + "\"#6ba7b811-9dad-11d1-80b4-00c04fd430c8\"]");
+    filters.put(
+        "mixed",
+        "tenantId eq \"#123e4567-e89b-12d3-a456-426614174000\" and active eq true and "
+            + "meta.lastModified gt \"@2025-11-12T22:07:34.995Z\" and "
+            + "(emails.value ew \"@example.com\" or userName sw \"adm\") and score ge 3.5");
+    return Map.copyOf(filters);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.Filter;
+import ai.singlr.scimsql.FilterMatcher;
+import ai.singlr.scimsql.FlatFilter;
+import ai.singlr.scimsql.ScimEngine;
+import ai.singlr.scimsql.SqlFragment;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering and in-memory matching of the {@link Filter} tree with its {@link FlatFilter}
+ * form. Tree rendering resets the filter's {@code Context} first, so both start from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlatFilterBenchmark {
+
+  @Param({"andChain", "orChain", "nested", "largeIn", "mixed"})
+  public String shape;
+
+  private Filter tree;
+  private FlatFilter flat;
+  // Matches no comparison, so or chains are evaluated in full.
+  private final Map<String, Object> resource = new HashMap<>();
+
+  @Setup
+  public void setUp() {
+    tree = new ScimEngine().parseFilter(FilterCorpus.get(shape), "t", null);
+    flat = FlatFilter.of(tree);
+    resource.put("userName", "nobody@example.com");
+    resource.put("title", "Sales");
+    resource.put("attr0", "v0");
+    resource.put("attr1", 0);
+  }
+
+  @Benchmark
+  public SqlFragment renderTree() {
+    tree.context().reset();
+    return new SqlFragment(tree.toClause(), tree.context().indexedParams());
+  }
+
+  @Benchmark
+  public SqlFragment renderFlat() {
+    return flat.render();
+  }
+
+  @Benchmark
+  public boolean matchTree() {
+    return FilterMatcher.matches(tree, resource);
+  }
+
+  @Benchmark
+  public boolean matchFlat() {
+    return flat.matches(resource);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.Filter;
+import ai.singlr.scimsql.FilterInterner;
+import ai.singlr.scimsql.ScimEngine;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Compares the retained heap of a population of saved filters parsed plainly and through a {@link
+ * FilterInterner}. The filters look like saved searches: each has its own owner, and shares its
+ * attribute paths, scope and remaining literals, drawn from small domains, with many others.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ai.singlr.scimsql.benchmarks.InterningFootprint 200000
+ * </pre>
+ */
+public final class InterningFootprint {
+
+  private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Support", "Finance"};
+
+  private InterningFootprint() {}
+
+  public static void main(String[] args) {
+    var count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    var expressions = new ArrayList<String>(count);
+    for (var i = 0; i < count; i++) {
+      expressions.add(expression(i));
+    }
+
+    var engine = new ScimEngine();
+    var plain = retained(expressions, e -> engine.parseFilter(e, "", null));
+    var interner = new FilterInterner();
+    var interned = retained(expressions, e -> engine.parseFilter(e, interner));
+    System.out.printf(
+        Locale.ROOT,
+        "%d filters: plain %.1f MB, interned %.1f MB (%.1fx smaller, %d shared nodes)%n",
+        count,
+        plain / 1e6,
+        interned / 1e6,
+        (double) plain / interned,
+        interner.size());
+  }
+
+  // Unique per filter through the owner; the rest repeats across the population.
+  private static String expression(int i) {
+    return ("manager.value eq \"owner-%d\" and department eq \"%s\" and active eq true"
+            + " and (title sw \"%s\" or meta.lastModified gt \"@2025-01-%02dT00:00:00Z\")")
+        .formatted(i, DEPARTMENTS[i % DEPARTMENTS.length], "Level " + (i % 50), 1 + i % 28);
+  }
+
+  private static long retained(List<String> expressions, Function<String, Filter> parse) {
+    var before = usedAfterGc();
+    var filters = new ArrayList<Filter>(expressions.size());
+    for (var expression : expressions) {
+      filters.add(parse.apply(expression));
+    }
+    var after = usedAfterGc();
+    Reference.reachabilityFence(filters);
+    // Exclude the list's backing array; only the filters count.
+    return after - before - (long) Integer.BYTES * expressions.size();
+  }
+
+  private static long usedAfterGc() {
+    var runtime = Runtime.getRuntime();
+    for (var i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
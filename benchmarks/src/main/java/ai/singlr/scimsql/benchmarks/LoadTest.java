@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.ScimEngine;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Closed-loop load test that shares one {@link ScimEngine} across many platform or virtual threads
+ * running a mixed {@link FilterCorpus} workload. Each scenario reports a latency histogram, the
+ * throughput and GC activity, and all scenarios are written to a JSON file.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ai.singlr.scimsql.benchmarks.LoadTest \
+ *     --threads 1,8,64,1024 --kinds platform,virtual --warmup 5s --duration 15s \
+ *     --output load-results.json
+ * </pre>
+ */
+public final class LoadTest {
+
+  private static final long HIGHEST_TRACKABLE_NANOS = Duration.ofSeconds(10).toNanos();
+
+  enum ThreadKind {
+    PLATFORM,
+    VIRTUAL;
+
+    ThreadFactory factory() {
+      return this == PLATFORM
+          ? Thread.ofPlatform().name("load-", 0).factory()
+          : Thread.ofVirtual().name("load-", 0).factory();
+    }
+  }
+
+  record Config(
+      List<Integer> threads,
+      List<ThreadKind> kinds,
+      Duration warmup,
+      Duration duration,
+      Path output) {
+
+    static Config parse(String[] args) {
+      var threads = List.of(1, Runtime.getRuntime().availableProcessors(), 1024);
+      var kinds = List.of(ThreadKind.PLATFORM, ThreadKind.VIRTUAL);
+      var warmup = Duration.ofSeconds(5);
+      var duration = Duration.ofSeconds(15);
+      var output = Path.of("load-results.json");
+      for (var i = 0; i < args.length; i += 2) {
+        if (i + 1 >= args.length) {
+          throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        var value = args[i + 1];
+        switch (args[i]) {
+          case "--threads" ->
+              threads = Arrays.stream(value.split(",")).map(Integer::valueOf).toList();
+          case "--kinds" ->
+              kinds =
+                  Arrays.stream(value.split(","))
+                      .map(k -> ThreadKind.valueOf(k.toUpperCase(Locale.ROOT)))
+                      .toList();
+          case "--warmup" -> warmup = parseDuration(value);
+          case "--duration" -> duration = parseDuration(value);
+          case "--output" -> output = Path.of(value);
+          default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      }
+      return new Config(threads, kinds, warmup, duration, output);
+    }
+
+    private static Duration parseDuration(String value) {
+      return Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+    }
+  }
+
+  record Result(
+      ThreadKind kind,
+      int threads,
+      long operations,
+      double throughput,
+      Histogram latency,
+      long gcCount,
+      long gcMillis,
+      long gcMaxPauseMillis) {
+
+    String toJson() {
+      return """
+          {"kind": "%s", "threads": %d, "operations": %d, "throughputOpsPerSec": %.1f, \
+          "latencyNanos": {"p50": %d, "p99": %d, "p999": %d, "max": %d, "mean": %.1f}, \
+          "gc": {"count": %d, "timeMillis": %d, "maxPauseMillis": %d}}"""
+          .formatted(
+              kind.name().toLowerCase(Locale.ROOT),
+              threads,
+              operations,
+              throughput,
+              latency.getValueAtPercentile(50),
+              latency.getValueAtPercentile(99),
+              latency.getValueAtPercentile(99.9),
+              latency.getMaxValue(),
+              latency.getMean(),
+              gcCount,
+              gcMillis,
+              gcMaxPauseMillis);
+    }
+  }
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    var config = Config.parse(args);
+    var filters = List.copyOf(FilterCorpus.FILTERS.values());
+    var results = new ArrayList<Result>();
+
+    System.out.printf(
+        "%-9s %8s %14s %10s %10s %10s %10s %6s %8s%n",
+        "kind", "threads", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "gcs", "gc ms");
+    for (var kind : config.kinds()) {
+      for (var threads : config.threads()) {
+        var result = run(kind, threads, filters, config);
+        results.add(result);
+        System.out.printf(
+            "%-9s %8d %14.1f %10.1f %10.1f %10.1f %10.1f %6d %8d%n",
+            kind.name().toLowerCase(Locale.ROOT),
+            threads,
+            result.throughput(),
+            result.latency().getValueAtPercentile(50) / 1000.0,
+            result.latency().getValueAtPercentile(99) / 1000.0,
+            result.latency().getValueAtPercentile(99.9) / 1000.0,
+            result.latency().getMaxValue() / 1000.0,
+            result.gcCount(),
+            result.gcMillis());
+      }
+    }
+    write(config.output(), results);
+  }
+
+  private static Result run(ThreadKind kind, int threads, List<String> filters, Config config)
+      throws InterruptedException {
+    var engine = new ScimEngine();
+    var recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    var operations = new AtomicLong();
+    var measuring = new AtomicBoolean();
+    var stop = new AtomicBoolean();
+    var done = new CountDownLatch(threads);
+
+    try (var executor = Executors.newThreadPerTaskExecutor(kind.factory())) {
+      for (var t = 0; t < threads; t++) {
+        executor.execute(
+            () -> {
+              var random = ThreadLocalRandom.current();
+              try {
+                while (!stop.get()) {
+                  var filter = filters.get(random.nextInt(filters.size()));
+                  var start = System.nanoTime();
+                  var parsed = engine.parseFilter(filter, "t", null);
+                  parsed.toClause();
+                  var elapsed = System.nanoTime() - start;
+                  if (measuring.get()) {
+                    recorder.recordValue(Math.min(elapsed, HIGHEST_TRACKABLE_NANOS));
+                    operations.incrementAndGet();
+                  }
+                }
+              } finally {
+                done.countDown();
+              }
+            });
+      }
+
+      Thread.sleep(config.warmup());
+      var gc = new GcMonitor();
+      recorder.reset();
+      measuring.set(true);
+      var start = System.nanoTime();
+      Thread.sleep(config.duration());
+      measuring.set(false);
+      var elapsed = System.nanoTime() - start;
+      var latency = recorder.getIntervalHistogram();
+      stop.set(true);
+      done.await();
+      gc.close();
+
+      return new Result(
+          kind,
+          threads,
+          operations.get(),
+          operations.get() * 1e9 / elapsed,
+          latency,
+          gc.count(),
+          gc.millis(),
+          gc.maxPauseMillis.get());
+    }
+  }
+
+  private static void write(Path output, List<Result> results) throws IOException {
+    var runtime = Runtime.getRuntime();
+    var json =
+        """
+        {"jvm": "%s", "cores": %d, "scenarios": [
+        %s
+        ]}
+        """
+            .formatted(
+                System.getProperty("java.vm.version"),
+                runtime.availableProcessors(),
+                results.stream().map(Result::toJson).collect(Collectors.joining(",\n")));
+    Files.writeString(output, json);
+    System.out.println("Results written to " + output.toAbsolutePath());
+  }
+
+  /** Tracks collections between creation and {@link #close()}, including the longest pause. */
+  private static final class GcMonitor implements AutoCloseable {
+    private final List<GarbageCollectorMXBean> beans =
+        ManagementFactory.getGarbageCollectorMXBeans();
+    private final long startCount = totalCount();
+    private final long startMillis = totalMillis();
+    private final AtomicLong maxPauseMillis = new AtomicLong();
+    private final NotificationListener listener =
+        (notification, handback) -> {
+          if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+              notification.getType())) {
+            var info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            maxPauseMillis.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+          }
+        };
+    private long endCount = -1;
+    private long endMillis = -1;
+
+    GcMonitor() {
+      for (var bean : beans) {
+        if (bean instanceof NotificationEmitter emitter) {
+          emitter.addNotificationListener(listener, null, null);
+        }
+      }
+    }
+
+    long count() {
+      return endCount - startCount;
+    }
+
+    long millis() {
+      return endMillis - startMillis;
+    }
+
+    @Override
+    public void close() {
+      endCount = totalCount();
+      endMillis = totalMillis();
+      for (var bean : beans) {
+        if (bean instanceof NotificationEmitter emitter) {
+          try {
+            emitter.removeNotificationListener(listener);
+          } catch (javax.management.ListenerNotFoundException ignored) {
+            // Already removed.
+          }
+        }
+      }
+    }
+
+    private long totalCount() {
+      return beans.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private long totalMillis() {
+      return beans.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.ScimEngine;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rejecting malformed filters: {@code garbage} fails the precheck before ANTLR runs,
+ * {@code truncated} and {@code misspelled} fail in the parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RejectionBenchmark {
+
+  private static final Map<String, String> INPUTS =
+      Map.of(
+          "garbage", "userName eq \"x\" or 1=1; --",
+          "truncated", "userName eq \"john\" and emails.value",
+          "misspelled", "userName eqq \"john\"");
+
+  @Param({"garbage", "truncated", "misspelled"})
+  public String input;
+
+  private final ScimEngine engine = new ScimEngine();
+  private String expression;
+
+  @Setup
+  public void setUp() {
+    expression = INPUTS.get(input);
+  }
+
+  @Benchmark
+  public Object reject() {
+    try {
+      return engine.parseFilter(expression, "t", null);
+    } catch (IllegalArgumentException e) {
+      return e;
+    }
+  }
+}
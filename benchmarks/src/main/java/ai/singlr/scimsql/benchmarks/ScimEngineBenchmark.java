@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.Filter;
+import ai.singlr.scimsql.ScimEngine;
+import ai.singlr.scimsql.ScimEvaluator;
+import ai.singlr.scimsql.ScimLexer;
+import ai.singlr.scimsql.ScimParser;
+import ai.singlr.scimsql.SqlFragment;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each phase of {@link ScimEngine#parseFilter} separately and end to end. Phases that
+ * follow another reuse its output from setup, except rendering: {@code toClause()} records
+ * parameters in the filter's {@code Context}, so render and bind include a fresh evaluation and the
+ * render cost is the difference to {@link #evaluate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScimEngineBenchmark {
+
+  @Param({"simpleEq", "andChain", "orChain", "nested", "largeIn", "json", "uuid", "mixed"})
+  public String shape;
+
+  private final ScimEngine engine = new ScimEngine();
+  private String expression;
+  private List<? extends Token> tokens;
+  private ScimParser.QueryContext tree;
+
+  @Setup
+  public void setUp() {
+    expression = FilterCorpus.get(shape);
+    var tokenStream = new CommonTokenStream(new ScimLexer(CharStreams.fromString(expression)));
+    tokenStream.fill();
+    tokens = tokenStream.getTokens();
+    tree = new ScimParser(new CommonTokenStream(new ListTokenSource(tokens))).query();
+  }
+
+  @Benchmark
+  public int lex() {
+    var tokenStream = new CommonTokenStream(new ScimLexer(CharStreams.fromString(expression)));
+    tokenStream.fill();
+    return tokenStream.size();
+  }
+
+  @Benchmark
+  public ScimParser.QueryContext parse() {
+    return new ScimParser(new CommonTokenStream(new ListTokenSource(tokens))).query();
+  }
+
+  @Benchmark
+  public Filter evaluate() {
+    return new ScimEvaluator("t", null).visit(tree);
+  }
+
+  @Benchmark
+  public String render() {
+    return new ScimEvaluator("t", null).visit(tree).toClause();
+  }
+
+  @Benchmark
+  public SqlFragment bind() {
+    var filter = new ScimEvaluator("t", null).visit(tree);
+    return new SqlFragment(filter.toClause(), filter.context().indexedParams());
+  }
+
+  @Benchmark
+  public SqlFragment endToEnd() {
+    var filter = engine.parseFilter(expression, "t", null);
+    return new SqlFragment(filter.toClause(), filter.context().indexedParams());
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql.benchmarks;
+
+import ai.singlr.scimsql.ScimEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold-start cost: each fork is a fresh JVM that measures exactly one invocation, so results
+ * include class loading, ANTLR ATN deserialization and interpretation. Compare runs with and
+ * without {@code -jvmArgsAppend -XX:AOTCache=...} built from {@code ScimTraining}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+  /** The first request a new instance serves. */
+  @Benchmark
+  public String firstRequest() {
+    return new ScimEngine().parseFilter(FilterCorpus.get("mixed"), "t", null).toClause();
+  }
+
+  /** The first 320 requests, eight shapes in turn, while the JIT is still warming up. */
+  @Benchmark
+  public int firstHundreds() {
+    var engine = new ScimEngine();
+    var length = 0;
+    for (var i = 0; i < 40; i++) {
+      for (var expression : FilterCorpus.FILTERS.values()) {
+        length += engine.parseFilter(expression, "t", null).toClause().length();
+      }
+    }
+    return length;
+  }
+}
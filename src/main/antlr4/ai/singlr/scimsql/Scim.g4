@@ -2,7 +2,7 @@ grammar Scim;
 
 query
     : NOT? SP? '(' query ')'                                                                         #parenExp
-    | query SP LOGICAL_OPERATOR SP query                                                             #logicalExp
+    | query SP op=LOGICAL_OPERATOR SP query                                                          #logicalExp
     | attrPath SP 'pr'                                                                               #presentExp
     | attrPath SP 'in' SP arrayValue                                                                 #inExp
     | attrPath SP op=( 'eq' | 'ne' | 'gt' | 'lt' | 'ge' | 'le' | 'co' | 'sw' | 'ew' ) SP value       #compareExp
@@ -68,7 +68,7 @@ value
     | TIMESTAMP_STRING  #timestampString
     | STRING            #string
     | DOUBLE            #double
-    | '-'? INT EXP?     #long
+    | '-'? (INT | INT_EXP) #long
     | JSON_STRING       #jsonString
     ;
 
@@ -104,6 +104,12 @@ DOUBLE
     : '-'? INT '.' [0-9] + EXP?
     ;
 
+// An integer with an exponent, e.g. 1e5, is one token; otherwise "e5" would lex as an attribute name.
+// Exponent digits may have leading zeros, as in 1e05.
+INT_EXP
+    : INT [Ee] [+\-]? [0-9]+
+    ;
+
 // INT no leading zeros.
 INT
     : '0' | [1-9] [0-9]*
@@ -111,7 +117,7 @@ INT
 
 // EXP we use "\-" since "-" means "range" inside [...]
 EXP
-    : [Ee] [+\-]? INT
+    : [Ee] [+\-]? [0-9]+
     ;
 
 SP
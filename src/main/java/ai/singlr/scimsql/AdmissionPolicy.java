@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Objects;
+
+/**
+ * Routes filters by their {@link FilterCost} before any SQL is sent: cheap filters go to the
+ * primary, costlier ones to a replica or a queue, and the worst are rejected. A filter goes to the
+ * most restrictive route whose threshold its cost exceeds; use {@link Double#POSITIVE_INFINITY} to
+ * disable a route.
+ *
+ * <pre>{@code
+ * var policy = new AdmissionPolicy(cost, 100, 500, 2_000);
+ * switch (policy.admit(filter).route()) {
+ *   case PRIMARY -> primary.query(sql);
+ *   case REPLICA -> replica.query(sql);
+ *   case QUEUE -> backgroundQueue.submit(sql);
+ *   case REJECT -> throw new TooExpensiveException();
+ * }
+ * }</pre>
+ */
+public record AdmissionPolicy(
+    FilterCost cost, double replicaAbove, double queueAbove, double rejectAbove) {
+
+  public enum Route {
+    PRIMARY,
+    REPLICA,
+    QUEUE,
+    REJECT
+  }
+
+  /** The estimated cost of a filter and where it should run. */
+  public record Decision(double cost, Route route) {}
+
+  public AdmissionPolicy {
+    Objects.requireNonNull(cost);
+    if (!(replicaAbove <= queueAbove && queueAbove <= rejectAbove)) {
+      throw new IllegalArgumentException(
+          "Thresholds must not decrease: replica %s, queue %s, reject %s"
+              .formatted(replicaAbove, queueAbove, rejectAbove));
+    }
+  }
+
+  /** Only rejects, above {@code rejectAbove}; everything else runs on the primary. */
+  public static AdmissionPolicy rejectAbove(FilterCost cost, double rejectAbove) {
+    return new AdmissionPolicy(cost, rejectAbove, rejectAbove, rejectAbove);
+  }
+
+  public Decision admit(CompiledFilter filter) {
+    return admit(filter.filter());
+  }
+
+  public Decision admit(Filter filter) {
+    return decide(cost.estimate(filter));
+  }
+
+  public Decision decide(double estimate) {
+    Route route;
+    if (estimate > rejectAbove) {
+      route = Route.REJECT;
+    } else if (estimate > queueAbove) {
+      route = Route.QUEUE;
+    } else if (estimate > replicaAbove) {
+      route = Route.REPLICA;
+    } else {
+      route = Route.PRIMARY;
+    }
+    return new Decision(estimate, route);
+  }
+}
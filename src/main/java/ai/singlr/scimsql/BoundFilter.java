@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request binding of a {@link CompiledFilter}: the clause for one table prefix plus a parameter
+ * vector in binding order. Names and types are shared with the compiled filter.
+ */
+public final class BoundFilter {
+
+  private final CompiledFilter filter;
+  private final String sql;
+  private final Object[] values;
+
+  BoundFilter(CompiledFilter filter, String sql, Object[] values) {
+    this.filter = filter;
+    this.sql = sql;
+    this.values = values;
+  }
+
+  public String sql() {
+    return sql;
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public String name(int index) {
+    return filter.parameterName(index);
+  }
+
+  public ValueFilter.ValueType type(int index) {
+    return filter.parameterType(index);
+  }
+
+  public Object value(int index) {
+    return values[index];
+  }
+
+  /** The parameters as a named map in binding order, for named-parameter APIs. */
+  public Map<String, Object> params() {
+    var params = new LinkedHashMap<String, Object>(values.length * 2);
+    for (var i = 0; i < values.length; i++) {
+      params.put(filter.parameterName(i), values[i]);
+    }
+    return params;
+  }
+
+  public SqlFragment toFragment() {
+    return new SqlFragment(sql, params());
+  }
+}
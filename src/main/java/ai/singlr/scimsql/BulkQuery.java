@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiles the filters of many operations against one resource type, e.g. from a SCIM {@code /Bulk}
+ * request, into a single statement. Every result row carries an {@code operation} column holding
+ * the index {@link #add} returned for the filter it matched, so rows can be routed back.
+ *
+ * <p>Filters of the same shape (same clause, different literals) share one branch: their literals
+ * become rows of a {@code VALUES} table joined {@code LATERAL} to the query. Other filters get a
+ * branch of their own, and branches are combined with {@code UNION ALL}. Parameters are prefixed
+ * with {@code b<operation>_} so they never collide.
+ *
+ * <pre>{@code
+ * var bulk = new BulkQuery("t.*", "users t", "t");
+ * bulk.add(engine.compileFilter("userName eq \"a\"", null));  // operation 0
+ * bulk.add(engine.compileFilter("userName eq \"b\"", null));  // operation 1
+ * bulk.toSql().sql();
+ * // SELECT v.operation, bulk.* FROM (VALUES (0, :b0_userName1), (1, :b1_userName1))
+ * //   AS v(operation, userName1) CROSS JOIN LATERAL
+ * //   (SELECT t.* FROM users t WHERE t.user_name = v.userName1) AS bulk
+ * }</pre>
+ */
+public final class BulkQuery {
+
+  private final String select;
+  private final String from;
+  private final String prefix;
+  private final List<CompiledFilter> filters = new ArrayList<>();
+
+  /**
+   * @param select the select list, e.g. {@code t.*}
+   * @param from the {@code FROM} clause, e.g. {@code users t}
+   * @param prefix the table prefix filters are bound with, e.g. {@code t}
+   */
+  public BulkQuery(String select, String from, String prefix) {
+    this.select = Objects.requireNonNull(select);
+    this.from = Objects.requireNonNull(from);
+    this.prefix = Objects.requireNonNull(prefix);
+  }
+
+  /** Adds a filter and returns its operation index, the value of the {@code operation} column. */
+  public int add(CompiledFilter filter) {
+    if (!filter.composable()) {
+      throw new IllegalArgumentException(
+          "Filters with custom parameter placeholders cannot be batched");
+    }
+    filters.add(filter);
+    return filters.size() - 1;
+  }
+
+  public int size() {
+    return filters.size();
+  }
+
+  public SqlFragment toSql() {
+    if (filters.isEmpty()) {
+      throw new IllegalStateException("No filters added");
+    }
+
+    var shapes = new LinkedHashMap<Object, List<Integer>>();
+    for (var i = 0; i < filters.size(); i++) {
+      shapes.computeIfAbsent(filters.get(i).shape(), s -> new ArrayList<>()).add(i);
+    }
+
+    var params = new LinkedHashMap<String, Object>();
+    var branches = new ArrayList<String>();
+    for (var operations : shapes.values()) {
+      var first = filters.get(operations.getFirst());
+      branches.add(
+          operations.size() == 1 || first.parameterCount() == 0
+              ? union(operations, params)
+              : lateral(operations, params));
+    }
+    return new SqlFragment(String.join(" UNION ALL ", branches), params);
+  }
+
+  // One SELECT per operation.
+  private String union(List<Integer> operations, Map<String, Object> params) {
+    var selects = new ArrayList<String>();
+    for (var operation : operations) {
+      var filter = filters.get(operation);
+      var clause = filter.render(prefix, i -> ":" + bind(operation, filter, i, params));
+      selects.add(
+          "SELECT %d AS operation, %s FROM %s WHERE %s".formatted(operation, select, from, clause));
+    }
+    return String.join(" UNION ALL ", selects);
+  }
+
+  private String lateral(List<Integer> operations, Map<String, Object> params) {
+    var shape = filters.get(operations.getFirst());
+    var rows = new ArrayList<String>();
+    for (var operation : operations) {
+      var filter = filters.get(operation);
+      var row = new StringBuilder("(").append(operation);
+      for (var i = 0; i < filter.parameterCount(); i++) {
+        row.append(", :").append(bind(operation, filter, i, params));
+      }
+      rows.add(row.append(')').toString());
+    }
+
+    var columns = new StringBuilder("operation");
+    for (var name : shape.parameterNames()) {
+      columns.append(", ").append(name);
+    }
+    var clause = shape.render(prefix, i -> "v." + shape.parameterName(i));
+    return ("SELECT v.operation, bulk.* FROM (VALUES %s) AS v(%s) CROSS JOIN LATERAL"
+            + " (SELECT %s FROM %s WHERE %s) AS bulk")
+        .formatted(String.join(", ", rows), columns, select, from, clause);
+  }
+
+  private static String bind(
+      int operation, CompiledFilter filter, int index, Map<String, Object> params) {
+    var name = "b" + operation + "_" + filter.parameterName(index);
+    params.put(name, filter.parameterValue(index));
+    return name;
+  }
+}
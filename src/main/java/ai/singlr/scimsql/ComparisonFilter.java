@@ -43,13 +43,7 @@ public class ComparisonFilter implements Filter {
     String paramKey = context.process(attribute, value, this::paramKey);
 
     if (value instanceof ValueFilter valueFilter) {
-      if (valueFilter.isUuid()) {
-        paramKey = "CAST(%s AS UUID)".formatted(paramKey);
-      } else if (valueFilter.isTimestamp()) {
-        paramKey = "CAST(%s AS timestamptz)".formatted(paramKey);
-      } else if (valueFilter.isJson()) {
-        paramKey = "CAST(%s AS jsonb)".formatted(paramKey);
-      }
+      paramKey = valueFilter.castParam(paramKey);
     }
 
     return switch (operator) {
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, thread-safe compiled filter. It holds the rendered clause with the table prefix
+ * left open and the names, types and literal values of its parameters in binding order, so one
+ * instance can serve any number of concurrent requests. Each {@link #bind} produces a small {@link
+ * BoundFilter} and never touches shared mutable state.
+ *
+ * <p>Compiled filters can be combined with {@link #and}, {@link #or} and {@link #not} without
+ * parsing again; parameters of the right-hand side are renumbered so names never collide. A fixed
+ * predicate such as a tenant scope can therefore be compiled once and composed per request.
+ */
+public final class CompiledFilter {
+
+  // Rendered in place of the table prefix; cannot occur in attribute names or operators.
+  static final String PREFIX_MARK = "\u0000";
+
+  private static final int PREFIX_HOLE = -1;
+  private static final Pattern HOLES =
+      Pattern.compile(Pattern.quote(PREFIX_MARK) + "\\.|(?<![\\w:]):(\\w+)");
+
+  private final Filter filter;
+  // The clause is texts[0] hole[0] texts[1] ... texts[n]; a hole is the prefix or a parameter.
+  private final String[] texts;
+  private final int[] holes;
+  private final boolean composable;
+  private final String[] names;
+  private final String[] keyBases;
+  private final ValueFilter.ValueType[] types;
+  private final Object[] values;
+  // The last rendering of each kind. Callers almost always reuse one prefix, and keeping a single
+  // entry bounds the memory of a long-lived instance rendered under arbitrary prefixes.
+  private volatile Rendered clause;
+  private volatile Rendered positionalClause;
+
+  private CompiledFilter(
+      Filter filter,
+      String[] texts,
+      int[] holes,
+      boolean composable,
+      String[] names,
+      String[] keyBases,
+      ValueFilter.ValueType[] types,
+      Object[] values) {
+    this.filter = filter;
+    this.texts = texts;
+    this.holes = holes;
+    this.composable = composable;
+    this.names = names;
+    this.keyBases = keyBases;
+    this.types = types;
+    this.values = values;
+  }
+
+  static CompiledFilter compile(
+      Function<ScimEvaluator, Filter> parser,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder,
+      Context context) {
+    var filter = parser.apply(new ScimEvaluator(PREFIX_MARK, compareFilterBuilder, context));
+    var clause = filter.toClause();
+
+    var size = context.size();
+    var names = new String[size];
+    var keyBases = new String[size];
+    var types = new ValueFilter.ValueType[size];
+    var values = new Object[size];
+    var indexes = new HashMap<String, Integer>();
+    for (var i = 0; i < size; i++) {
+      names[i] = context.key(i);
+      keyBases[i] = context.keyBase(i);
+      types[i] = context.type(i);
+      values[i] = context.value(i);
+      indexes.put(names[i], i);
+    }
+
+    var texts = new ArrayList<String>();
+    var holes = new ArrayList<Integer>();
+    var located = 0;
+    var matcher = HOLES.matcher(clause);
+    var last = 0;
+    while (matcher.find()) {
+      var hole = PREFIX_HOLE;
+      if (matcher.group(1) != null) {
+        var index = indexes.get(matcher.group(1));
+        if (index == null) {
+          continue;
+        }
+        hole = index;
+        located++;
+      }
+      texts.add(clause.substring(last, matcher.start()));
+      holes.add(hole);
+      last = matcher.end();
+    }
+    texts.add(clause.substring(last));
+
+    return new CompiledFilter(
+        filter,
+        texts.toArray(String[]::new),
+        holes.stream().mapToInt(Integer::intValue).toArray(),
+        located == size,
+        names,
+        keyBases,
+        types,
+        values);
+  }
+
+  /** {@code (this) AND (other)}, with the parameters of {@code other} renumbered after ours. */
+  public CompiledFilter and(CompiledFilter other) {
+    return combine(
+        "AND", new AndFilter(new ParenFilter(filter), new ParenFilter(other.filter)), other);
+  }
+
+  /** {@code (this) OR (other)}, with the parameters of {@code other} renumbered after ours. */
+  public CompiledFilter or(CompiledFilter other) {
+    return combine(
+        "OR", new OrFilter(new ParenFilter(filter), new ParenFilter(other.filter)), other);
+  }
+
+  /** {@code NOT (this)}; parameter names are unchanged. */
+  public CompiledFilter not() {
+    var negated = texts.clone();
+    negated[0] = "NOT (" + negated[0];
+    negated[negated.length - 1] += ")";
+    return new CompiledFilter(
+        new NotFilter(filter), negated, holes, composable, names, keyBases, types, values);
+  }
+
+  private CompiledFilter combine(String operator, Filter tree, CompiledFilter other) {
+    if (!composable || !other.composable) {
+      throw new IllegalArgumentException(
+          "Filters with custom parameter placeholders cannot be composed");
+    }
+
+    var size = names.length + other.names.length;
+    var keyBases = Arrays.copyOf(this.keyBases, size);
+    System.arraycopy(other.keyBases, 0, keyBases, names.length, other.names.length);
+    var types = Arrays.copyOf(this.types, size);
+    System.arraycopy(other.types, 0, types, names.length, other.names.length);
+    var values = Arrays.copyOf(this.values, size);
+    System.arraycopy(other.values, 0, values, names.length, other.names.length);
+
+    // Number keys per stem across both sides, as one Context would have; ours keep their names.
+    var names = new String[size];
+    var counts = new HashMap<String, Integer>();
+    for (var i = 0; i < size; i++) {
+      names[i] = keyBases[i] + counts.merge(keyBases[i], 1, Integer::sum);
+    }
+
+    var texts = new String[this.texts.length + other.texts.length - 1];
+    var holes = new int[this.holes.length + other.holes.length];
+    System.arraycopy(this.texts, 0, texts, 0, this.texts.length);
+    System.arraycopy(this.holes, 0, holes, 0, this.holes.length);
+    texts[0] = "(" + texts[0];
+    texts[this.texts.length - 1] += ") " + operator + " (" + other.texts[0];
+    System.arraycopy(other.texts, 1, texts, this.texts.length, other.texts.length - 1);
+    texts[texts.length - 1] += ")";
+    for (var i = 0; i < other.holes.length; i++) {
+      var hole = other.holes[i];
+      holes[this.holes.length + i] = hole == PREFIX_HOLE ? hole : hole + this.names.length;
+    }
+
+    return new CompiledFilter(tree, texts, holes, true, names, keyBases, types, values);
+  }
+
+  /** The SQL clause with columns qualified by {@code prefix}, or unqualified if it is empty. */
+  public String clause(String prefix) {
+    Objects.requireNonNull(prefix);
+    if (holes.length == 0) {
+      return texts[0];
+    }
+    var cached = clause;
+    if (cached == null || !cached.prefix().equals(prefix)) {
+      cached = new Rendered(prefix, 0, render(prefix));
+      clause = cached;
+    }
+    return cached.sql();
+  }
+
+  /**
+   * The SQL clause with numbered placeholders ({@code $1}, {@code $2}, ...) in parameter order, as
+   * R2DBC and the Postgres wire protocol expect. {@code firstIndex} is the number of the first
+   * parameter, for statements that bind other values before the filter. {@code null} literals are
+   * rendered as {@code NULL} and take no placeholder, since a typeless null cannot be bound.
+   */
+  public String positionalClause(String prefix, int firstIndex) {
+    Objects.requireNonNull(prefix);
+    if (!composable) {
+      throw new IllegalArgumentException(
+          "Filters with custom parameter placeholders cannot be numbered");
+    }
+    if (firstIndex < 1) {
+      throw new IllegalArgumentException("First parameter index must be positive: " + firstIndex);
+    }
+    var cached = positionalClause;
+    if (cached == null || cached.firstIndex() != firstIndex || !cached.prefix().equals(prefix)) {
+      cached = new Rendered(prefix, firstIndex, render(prefix, firstIndex));
+      positionalClause = cached;
+    }
+    return cached.sql();
+  }
+
+  private String render(String prefix) {
+    return render(prefix, i -> ":" + names[i]);
+  }
+
+  private String render(String prefix, int firstIndex) {
+    var numbers = new int[types.length];
+    var next = firstIndex;
+    for (var i = 0; i < types.length; i++) {
+      numbers[i] = types[i] == ValueFilter.ValueType.NULL ? 0 : next++;
+    }
+    return render(prefix, i -> numbers[i] == 0 ? "NULL" : "$" + numbers[i]);
+  }
+
+  /** Renders the clause with {@code parameter} supplying the SQL for each parameter index. */
+  String render(String prefix, IntFunction<String> parameter) {
+    var builder = new StringBuilder(texts[0]);
+    for (var i = 0; i < holes.length; i++) {
+      if (holes[i] != PREFIX_HOLE) {
+        builder.append(parameter.apply(holes[i]));
+      } else if (!prefix.isEmpty()) {
+        builder.append(prefix).append('.');
+      }
+      builder.append(texts[i + 1]);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Equal for filters that differ at most in their literal values, i.e. that render the same clause
+   * with the same parameters.
+   */
+  Object shape() {
+    return List.of(List.of(texts), Arrays.toString(holes), List.of(types), List.of(names));
+  }
+
+  /** Whether every parameter appears as a recognised placeholder, so it can be renamed. */
+  boolean composable() {
+    return composable;
+  }
+
+  /** Binds the literal values the filter was parsed with. */
+  public BoundFilter bind(String prefix) {
+    return new BoundFilter(this, clause(prefix), values.clone());
+  }
+
+  /**
+   * Binds new values to the same filter shape, e.g. when the literals of a saved filter vary per
+   * request. {@code values} must follow the parameter order of this filter.
+   */
+  public BoundFilter bind(String prefix, Object... values) {
+    if (values.length != this.values.length) {
+      throw new IllegalArgumentException(
+          "Expected %d values but got %d".formatted(this.values.length, values.length));
+    }
+    return new BoundFilter(this, clause(prefix), values.clone());
+  }
+
+  public int parameterCount() {
+    return names.length;
+  }
+
+  public String parameterName(int index) {
+    return names[index];
+  }
+
+  public ValueFilter.ValueType parameterType(int index) {
+    return types[index];
+  }
+
+  /** The literal the filter was parsed with for the given parameter. */
+  public Object parameterValue(int index) {
+    return values[index];
+  }
+
+  public List<String> parameterNames() {
+    return List.of(names);
+  }
+
+  /** The tree this filter was compiled from; its attributes carry {@link #PREFIX_MARK}. */
+  Filter filter() {
+    return filter;
+  }
+
+  @Override
+  public String toString() {
+    return clause("") + " " + Arrays.toString(names);
+  }
+
+  private record Rendered(String prefix, int firstIndex, String sql) {}
+}
@@ -6,58 +6,77 @@
 package ai.singlr.scimsql;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 
+/**
+ * Collects parameter bindings while a filter tree is rendered. Bindings are kept in parallel arrays
+ * in binding order; the named maps returned by {@link #indexedParams()} and {@link #params()} are
+ * only built when first requested, and from then on are updated with every binding. A context can
+ * be {@link #reset() reset} and reused.
+ */
 public class Context {
-  private final Map<String, List<Object>> params;
-  private final Map<String, Object> indexedParams;
+  /** List size from which {@code in} is rendered against one array parameter. */
+  public static final int DEFAULT_IN_LIST_THRESHOLD = 1000;
 
-  public Context() {
-    this.params = new HashMap<>();
-    this.indexedParams = new HashMap<>();
-  }
+  private static final int INITIAL_CAPACITY = 8;
 
-  public String process(Filter attribute, Filter value, Function<String, String> keyMapper) {
-    var rawValue = value instanceof ValueFilter ? ((ValueFilter) value).value() : null;
+  private final int inListThreshold;
 
-    var key = attribute.toString();
+  // One slot per bound parameter, in binding order.
+  private String[] keys = new String[INITIAL_CAPACITY];
+  private Object[] values = new Object[INITIAL_CAPACITY];
+  private ValueFilter.ValueType[] types = new ValueFilter.ValueType[INITIAL_CAPACITY];
+  private int[] slotAttributes = new int[INITIAL_CAPACITY];
+  private int size;
 
-    List<Object> values = params.computeIfAbsent(key, k -> new ArrayList<>());
-    values.add(rawValue);
+  // Distinct attributes; filters reference few, so a linear scan beats hashing.
+  private String[] attributes = new String[INITIAL_CAPACITY];
+  private String[] keyBases = new String[INITIAL_CAPACITY];
+  private int[] counts = new int[INITIAL_CAPACITY];
+  private int attributeCount;
 
-    var indexedKey = key.replace(".", "_") + values.size();
-    indexedParams.put(indexedKey, rawValue);
+  private Map<String, Object> indexedParams;
+  private Map<String, List<Object>> params;
+
+  public Context() {
+    this(DEFAULT_IN_LIST_THRESHOLD);
+  }
 
-    return keyMapper.apply(indexedKey);
+  /**
+   * {@code in} lists with at least {@code inListThreshold} elements of one type bind a single typed
+   * array instead of one parameter per element.
+   */
+  public Context(int inListThreshold) {
+    if (inListThreshold < 1) {
+      throw new IllegalArgumentException("In-list threshold must be positive: " + inListThreshold);
+    }
+    this.inListThreshold = inListThreshold;
+  }
+
+  public int inListThreshold() {
+    return inListThreshold;
+  }
+
+  public String process(Filter attribute, Filter value, Function<String, String> keyMapper) {
+    var attributeIndex = attributeIndex(attribute.toString());
+    return keyMapper.apply(add(attributeIndex, value));
   }
 
   public String processArray(
       Filter attribute, List<Filter> valueFilters, Function<String, String> keyMapper) {
-    var key = attribute.toString();
-    List<Object> values = params.computeIfAbsent(key, k -> new ArrayList<>());
+    var attributeIndex = attributeIndex(attribute.toString());
     var builder = new StringBuilder();
 
     for (var v = 0; v < valueFilters.size(); v++) {
       var vf = valueFilters.get(v);
-      Object rawValue = null;
-      ValueFilter vfv = null;
-
-      if (vf instanceof ValueFilter valueFilter) {
-        rawValue = valueFilter.value();
-        vfv = valueFilter;
-      }
-
-      values.add(rawValue);
-
-      var indexedKey = key.replace(".", "_") + values.size();
-      indexedParams.put(indexedKey, rawValue);
-
-      var paramKey = keyMapper.apply(indexedKey);
-      if (vfv != null && vfv.isUuid()) {
+      var paramKey = keyMapper.apply(add(attributeIndex, vf));
+      if (vf instanceof ValueFilter valueFilter && valueFilter.isUuid()) {
         paramKey = "CAST(%s AS UUID)".formatted(paramKey);
       }
       builder.append(paramKey);
@@ -71,8 +90,8 @@ public class Context {
   }
 
   public boolean isValid(Set<String> validParamKeys) {
-    for (String key : params.keySet()) {
-      if (!validParamKeys.contains(key)) {
+    for (var i = 0; i < attributeCount; i++) {
+      if (!validParamKeys.contains(attributes[i])) {
         return false;
       }
     }
@@ -80,11 +99,127 @@ public class Context {
     return true;
   }
 
+  /**
+   * Parameter values by generated key, in binding order. The map is built on first access and is
+   * live: later bindings are added to it and {@link #reset()} clears it, so it may be fetched
+   * before the filter is rendered.
+   */
   public Map<String, Object> indexedParams() {
+    if (indexedParams == null) {
+      var map = new LinkedHashMap<String, Object>(Math.max(4, size * 2));
+      for (var i = 0; i < size; i++) {
+        map.put(keys[i], values[i]);
+      }
+      indexedParams = map;
+    }
     return indexedParams;
   }
 
+  /**
+   * Parameter values grouped by attribute path, built on first access and kept live like {@link
+   * #indexedParams}.
+   */
   public Map<String, List<Object>> params() {
+    if (params == null) {
+      var map = new LinkedHashMap<String, List<Object>>(Math.max(4, attributeCount * 2));
+      for (var a = 0; a < attributeCount; a++) {
+        map.put(attributes[a], new ArrayList<>(counts[a]));
+      }
+      for (var i = 0; i < size; i++) {
+        map.get(attributes[slotAttributes[i]]).add(values[i]);
+      }
+      params = map;
+    }
     return params;
   }
+
+  /** Number of bound parameters. */
+  public int size() {
+    return size;
+  }
+
+  /** Generated key of the parameter at {@code index}, e.g. {@code "userName1"}. */
+  public String key(int index) {
+    return keys[checkIndex(index)];
+  }
+
+  public Object value(int index) {
+    return values[checkIndex(index)];
+  }
+
+  /** Value type of the parameter at {@code index}; {@code NULL} when no literal was bound. */
+  public ValueFilter.ValueType type(int index) {
+    return types[checkIndex(index)];
+  }
+
+  /** Attribute-derived stem of the key at {@code index}, i.e. the key without its counter. */
+  String keyBase(int index) {
+    return keyBases[slotAttributes[checkIndex(index)]];
+  }
+
+  /** Forgets all bindings, keeping the allocated storage for the next filter. */
+  public void reset() {
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    attributeCount = 0;
+    if (indexedParams != null) {
+      indexedParams.clear();
+    }
+    if (params != null) {
+      params.clear();
+    }
+  }
+
+  private String add(int attributeIndex, Filter value) {
+    if (size == keys.length) {
+      var capacity = size * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+      types = Arrays.copyOf(types, capacity);
+      slotAttributes = Arrays.copyOf(slotAttributes, capacity);
+    }
+
+    var count = ++counts[attributeIndex];
+    var key = keyBases[attributeIndex] + count;
+    keys[size] = key;
+    if (value instanceof ValueFilter valueFilter) {
+      values[size] = valueFilter.value();
+      types[size] = valueFilter.type();
+    } else {
+      values[size] = null;
+      types[size] = ValueFilter.ValueType.NULL;
+    }
+    slotAttributes[size] = attributeIndex;
+    if (indexedParams != null) {
+      indexedParams.put(key, values[size]);
+    }
+    if (params != null) {
+      params.computeIfAbsent(attributes[attributeIndex], a -> new ArrayList<>()).add(values[size]);
+    }
+    size++;
+    return key;
+  }
+
+  private int attributeIndex(String attribute) {
+    for (var i = 0; i < attributeCount; i++) {
+      if (attributes[i].equals(attribute)) {
+        return i;
+      }
+    }
+
+    if (attributeCount == attributes.length) {
+      var capacity = attributeCount * 2;
+      attributes = Arrays.copyOf(attributes, capacity);
+      keyBases = Arrays.copyOf(keyBases, capacity);
+      counts = Arrays.copyOf(counts, capacity);
+    }
+    attributes[attributeCount] = attribute;
+    keyBases[attributeCount] = attribute.replace(".", "_");
+    counts[attributeCount] = 0;
+    return attributeCount++;
+  }
+
+  private int checkIndex(int index) {
+    return Objects.checkIndex(index, size);
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * How the companion {@code totalResults} query of a list request is generated. Every mode reuses
+ * the parameters of the filter fragment unchanged.
+ */
+public record CountStrategy(Mode mode, int cap) {
+
+  public enum Mode {
+    /** {@code SELECT count(*)} over the full filter. */
+    EXACT,
+    /** Counts at most {@code cap} rows; a result equal to the cap means "at least". */
+    CAPPED,
+    /** The planner's row estimate, read from {@code EXPLAIN (FORMAT JSON)} output. */
+    ESTIMATED
+  }
+
+  private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*([0-9.eE+]+)");
+
+  public CountStrategy {
+    Objects.requireNonNull(mode);
+    if (mode == Mode.CAPPED && cap < 1) {
+      throw new IllegalArgumentException("Capped count requires a positive cap: " + cap);
+    }
+  }
+
+  public static CountStrategy exact() {
+    return new CountStrategy(Mode.EXACT, 0);
+  }
+
+  public static CountStrategy capped(int cap) {
+    return new CountStrategy(Mode.CAPPED, cap);
+  }
+
+  public static CountStrategy estimated() {
+    return new CountStrategy(Mode.ESTIMATED, 0);
+  }
+
+  /**
+   * Builds the count statement for {@code from} (a table with optional alias, e.g. {@code "users
+   * t"}) restricted by {@code filter}, which may be null for an unfiltered list.
+   */
+  public SqlFragment countQuery(String from, SqlFragment filter) {
+    var where = filter == null ? "" : " WHERE " + filter.sql();
+    var params = filter == null ? Map.<String, Object>of() : filter.params();
+    var sql =
+        switch (mode) {
+          case EXACT -> "SELECT count(*) FROM %s%s".formatted(from, where);
+          case CAPPED ->
+              "SELECT count(*) FROM (SELECT 1 FROM %s%s LIMIT %d) AS capped"
+                  .formatted(from, where, cap);
+          case ESTIMATED -> "EXPLAIN (FORMAT JSON) SELECT 1 FROM %s%s".formatted(from, where);
+        };
+    return new SqlFragment(sql, params);
+  }
+
+  /** Extracts the top-level row estimate from the JSON plan returned by an estimated count. */
+  public static long parseEstimate(String explainJson) {
+    var matcher = PLAN_ROWS.matcher(explainJson);
+    if (!matcher.find()) {
+      throw new IllegalArgumentException("No \"Plan Rows\" in EXPLAIN output");
+    }
+    return Math.round(Double.parseDouble(matcher.group(1)));
+  }
+}
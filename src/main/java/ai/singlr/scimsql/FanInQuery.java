@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Runs one filter shape for many parameter sets in a single query. Each parameter of the {@link
+ * CompiledFilter} binds one typed array holding its value from every tuple. The arrays are unnested
+ * side by side and joined to the table, and each row reports the {@value #TUPLE_INDEX} of the tuple
+ * it matched:
+ *
+ * <pre>{@code
+ * var compiled = engine.compileFilter("userName eq \"x\"", null);
+ * FanInQuery.of(compiled, "t.*", "users t", "t", List.of(new Object[] {"a"}, new Object[] {"b"}));
+ * // SELECT v.ordinality - 1 AS tuple_index, t.* FROM users t
+ * //   JOIN unnest(CAST(:userName1 AS text[])) WITH ORDINALITY AS v(userName1, ordinality)
+ * //   ON t.user_name = v.userName1
+ * }</pre>
+ */
+public final class FanInQuery {
+
+  /** Result column holding the zero-based index of the matched tuple. */
+  public static final String TUPLE_INDEX = "tuple_index";
+
+  private FanInQuery() {}
+
+  /**
+   * @param tuples parameter values in the order of {@link CompiledFilter#parameterNames()}
+   */
+  public static SqlFragment of(
+      CompiledFilter filter, String select, String from, String prefix, List<Object[]> tuples) {
+    if (!filter.composable()) {
+      throw new IllegalArgumentException(
+          "Filters with custom parameter placeholders cannot be fanned in");
+    }
+    if (filter.parameterCount() == 0) {
+      throw new IllegalArgumentException("Filter has no parameters to fan in");
+    }
+    if (tuples.isEmpty()) {
+      throw new IllegalArgumentException("No tuples to bind");
+    }
+
+    var params = new LinkedHashMap<String, Object>();
+    var arrays = new ArrayList<String>();
+    var columns = new ArrayList<String>();
+    for (var p = 0; p < filter.parameterCount(); p++) {
+      var values = new ArrayList<Object>(tuples.size());
+      for (var tuple : tuples) {
+        if (tuple.length != filter.parameterCount()) {
+          throw new IllegalArgumentException(
+              "Expected %d values but got %d".formatted(filter.parameterCount(), tuple.length));
+        }
+        values.add(tuple[p]);
+      }
+      var types = new ArrayList<ValueFilter.ValueType>(values.size());
+      for (var v = 0; v < values.size(); v++) {
+        types.add(filter.parameterType(p));
+      }
+      var sqlType = SqlArrays.elementType(types, values);
+      if (sqlType == null) {
+        throw new IllegalArgumentException(
+            "Values of %s have no common SQL type".formatted(filter.parameterName(p)));
+      }
+
+      var name = filter.parameterName(p);
+      params.put(name, SqlArrays.toArray(sqlType, values));
+      arrays.add("CAST(:%s AS %s[])".formatted(name, sqlType));
+      columns.add(name);
+    }
+
+    var clause = filter.render(prefix, i -> "v." + filter.parameterName(i));
+    var sql =
+        "SELECT v.ordinality - 1 AS %s, %s FROM %s JOIN unnest(%s) WITH ORDINALITY AS v(%s,"
+            + " ordinality) ON %s";
+    return new SqlFragment(
+        sql.formatted(
+            TUPLE_INDEX,
+            select,
+            from,
+            String.join(", ", arrays),
+            String.join(", ", columns),
+            clause),
+        params);
+  }
+}
@@ -0,0 +1,563 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A compact binary form of parsed filters, for storing saved filters and shipping them between
+ * instances without parsing them again. Decoding, through {@link ScimEngine#decodeFilter} or {@link
+ * ScimEngine#decodeCompiled}, reads the node stream directly and never involves ANTLR.
+ *
+ * <p>Each record is a version byte, the varint length of the rest, a table of the distinct strings
+ * in the filter, and the nodes in pre-order: a tag byte followed by varint operands that refer to
+ * the string table. Literals keep their type; UUIDs and timestamps are stored as 16 bytes and as
+ * epoch seconds and nanoseconds when they print back as the same text. Records can be concatenated
+ * in one buffer or stream.
+ *
+ * <p>Attributes are stored without their table prefix, which the decoding engine supplies, and
+ * comparisons without the class a compare filter builder gave them; the decoding engine's builder
+ * is applied again.
+ */
+public final class FilterCodec {
+
+  /** The format version written in the first byte of every record. */
+  public static final int VERSION = 1;
+
+  // Bounds recursion when decoding corrupt or hostile input.
+  private static final int MAX_DEPTH = 4096;
+
+  private static final int AND = 1;
+  private static final int OR = 2;
+  private static final int NOT = 3;
+  private static final int PAREN = 4;
+  private static final int PRESENT = 5;
+  private static final int COMPARE = 6;
+  private static final int IN = 7;
+  private static final int ATTRIBUTE = 8;
+  private static final int ATTRIBUTE_PATH = 9;
+
+  // A literal tag is LITERAL | kind << 3 | value type ordinal.
+  private static final int LITERAL = 0x80;
+  private static final int STRING = 0;
+  private static final int LONG = 1;
+  private static final int DOUBLE = 2;
+  private static final int DECIMAL = 3;
+  private static final int TRUE = 4;
+  private static final int FALSE = 5;
+  private static final int UUID_BITS = 6;
+  private static final int INSTANT = 7;
+  private static final int NULL = 8;
+
+  private static final Set<String> OPERATORS =
+      Set.of("eq", "ne", "gt", "lt", "ge", "le", "co", "sw", "ew");
+
+  private static final ValueFilter.ValueType[] TYPES = ValueFilter.ValueType.values();
+
+  private FilterCodec() {}
+
+  public static byte[] encode(CompiledFilter filter) {
+    return encode(filter.filter());
+  }
+
+  public static byte[] encode(Filter filter) {
+    var encoder = new Encoder();
+    encoder.node(filter);
+    return encoder.record();
+  }
+
+  public static void write(Filter filter, OutputStream out) throws IOException {
+    out.write(encode(filter));
+  }
+
+  /**
+   * Writes one record at the buffer's position.
+   *
+   * @throws java.nio.BufferOverflowException if the record does not fit
+   */
+  public static void write(Filter filter, ByteBuffer out) {
+    out.put(encode(filter));
+  }
+
+  /**
+   * Reads the next record from a stream, to pass to {@link ScimEngine#decodeFilter} or {@link
+   * ScimEngine#decodeCompiled}; null at the end of the stream.
+   */
+  public static ByteBuffer next(InputStream in) throws IOException {
+    var version = in.read();
+    if (version < 0) {
+      return null;
+    }
+    var length = 0;
+    for (var shift = 0; ; shift += 7) {
+      var b = in.read();
+      if (b < 0 || shift > 28) {
+        throw new IllegalArgumentException("Malformed encoded filter: truncated length");
+      }
+      length |= (b & 0x7F) << shift;
+      if (b < 0x80) {
+        break;
+      }
+    }
+    if (length < 0) {
+      throw new IllegalArgumentException("Malformed encoded filter: length out of range");
+    }
+    var bytes = new byte[varintSize(length) + 1 + length];
+    var record = ByteBuffer.wrap(bytes);
+    record.put((byte) version);
+    putVarint(record, length);
+    if (in.readNBytes(bytes, record.position(), length) != length) {
+      throw new IllegalArgumentException("Malformed encoded filter: truncated record");
+    }
+    return record.rewind();
+  }
+
+  /** Reads one record at the buffer's position, advancing past it. */
+  static Filter decode(ByteBuffer in, ScimEvaluator evaluator) {
+    try {
+      var version = in.get() & 0xFF;
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported filter encoding version: " + version);
+      }
+      var length = varint(in);
+      if (length > in.remaining()) {
+        throw malformed("truncated record");
+      }
+      var end = in.position() + length;
+      var filter = new Decoder(in, evaluator).record();
+      if (in.position() != end) {
+        throw malformed("unexpected trailing bytes");
+      }
+      return filter;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw malformed("truncated record");
+    } catch (ArithmeticException | DateTimeException e) {
+      throw malformed("literal out of range");
+    }
+  }
+
+  private static final class Encoder {
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final ArrayList<String> table = new ArrayList<>();
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    void node(Filter filter) {
+      switch (filter) {
+        case AndFilter and -> {
+          tag(AND);
+          node(and.left());
+          node(and.right());
+        }
+        case OrFilter or -> {
+          tag(OR);
+          node(or.left());
+          node(or.right());
+        }
+        case NotFilter not -> {
+          tag(NOT);
+          node(not.filter());
+        }
+        case ParenFilter paren -> {
+          tag(PAREN);
+          node(paren.inner());
+        }
+        case PresentFilter present -> {
+          tag(PRESENT);
+          node(present.attribute());
+        }
+        case ComparisonFilter comparison -> {
+          tag(COMPARE);
+          string(comparison.operator());
+          node(comparison.attribute());
+          node(comparison.value());
+        }
+        case InFilter in -> {
+          tag(IN);
+          node(in.attribute());
+          var values = in.arrayValue().values();
+          varint(values.size());
+          values.forEach(this::node);
+        }
+        case AttributeFilter attribute -> {
+          tag(attribute.subAttribute() == null ? ATTRIBUTE : ATTRIBUTE_PATH);
+          string(attribute.name());
+          if (attribute.subAttribute() != null) {
+            node(attribute.subAttribute());
+          }
+        }
+        case ValueFilter value -> literal(value);
+        default ->
+            throw new IllegalArgumentException(
+                "Cannot encode filter node: " + filter.getClass().getName());
+      }
+    }
+
+    private void literal(ValueFilter filter) {
+      var type = filter.type();
+      switch (filter.value()) {
+        case null -> literalTag(NULL, type);
+        case String text when type == ValueFilter.ValueType.UUID && isCanonicalUuid(text) -> {
+          var uuid = UUID.fromString(text);
+          literalTag(UUID_BITS, type);
+          fixed64(uuid.getMostSignificantBits());
+          fixed64(uuid.getLeastSignificantBits());
+        }
+        case String text
+            when type == ValueFilter.ValueType.TIMESTAMP && isCanonicalInstant(text) -> {
+          var instant = Instant.parse(text);
+          literalTag(INSTANT, type);
+          varint64(zigzag(instant.getEpochSecond()));
+          varint(instant.getNano());
+        }
+        case String text -> {
+          literalTag(STRING, type);
+          string(text);
+        }
+        case Long number -> {
+          literalTag(LONG, type);
+          varint64(zigzag(number));
+        }
+        case Double number -> {
+          literalTag(DOUBLE, type);
+          fixed64(Double.doubleToRawLongBits(number));
+        }
+        case BigDecimal number -> {
+          literalTag(DECIMAL, type);
+          varint64(zigzag(number.scale()));
+          var unscaled = number.unscaledValue().toByteArray();
+          varint(unscaled.length);
+          bytes(unscaled, unscaled.length);
+        }
+        case Boolean bool -> literalTag(bool ? TRUE : FALSE, type);
+        default ->
+            throw new IllegalArgumentException(
+                "Cannot encode literal of type " + filter.value().getClass().getName());
+      }
+    }
+
+    byte[] record() {
+      var body = new Encoder();
+      body.varint(table.size());
+      for (var text : table) {
+        var utf8 = text.getBytes(StandardCharsets.UTF_8);
+        body.varint(utf8.length);
+        body.bytes(utf8, utf8.length);
+      }
+      body.bytes(bytes, size);
+
+      var record = ByteBuffer.allocate(1 + varintSize(body.size) + body.size);
+      record.put((byte) VERSION);
+      putVarint(record, body.size);
+      record.put(body.bytes, 0, body.size);
+      return record.array();
+    }
+
+    private void literalTag(int kind, ValueFilter.ValueType type) {
+      tag(LITERAL | kind << 3 | type.ordinal());
+    }
+
+    private void string(String text) {
+      var index = strings.get(text);
+      if (index == null) {
+        index = table.size();
+        strings.put(text, index);
+        table.add(text);
+      }
+      varint(index);
+    }
+
+    private void tag(int tag) {
+      ensure(1);
+      bytes[size++] = (byte) tag;
+    }
+
+    private void varint(int value) {
+      varint64(value & 0xFFFFFFFFL);
+    }
+
+    private void varint64(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    private void fixed64(long value) {
+      ensure(8);
+      for (var shift = 56; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void bytes(byte[] source, int length) {
+      ensure(length);
+      System.arraycopy(source, 0, bytes, size, length);
+      size += length;
+    }
+
+    private void ensure(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+
+  private static final class Decoder {
+    private final ByteBuffer in;
+    private final ScimEvaluator evaluator;
+    private final Context context;
+    private String[] strings;
+
+    Decoder(ByteBuffer in, ScimEvaluator evaluator) {
+      this.in = in;
+      this.evaluator = evaluator;
+      this.context = evaluator.context();
+    }
+
+    Filter record() {
+      var count = varint(in);
+      if (count > in.remaining()) {
+        throw malformed("string table too large");
+      }
+      strings = new String[count];
+      for (var i = 0; i < count; i++) {
+        strings[i] = utf8(varint(in));
+      }
+      return node(0);
+    }
+
+    private Filter node(int depth) {
+      if (depth > MAX_DEPTH) {
+        throw malformed("nesting deeper than " + MAX_DEPTH);
+      }
+      var tag = in.get() & 0xFF;
+      if ((tag & LITERAL) != 0) {
+        return literal(tag);
+      }
+      return switch (tag) {
+        case AND -> new AndFilter(node(depth + 1), node(depth + 1));
+        case OR -> new OrFilter(node(depth + 1), node(depth + 1));
+        case NOT -> new NotFilter(node(depth + 1));
+        case PAREN -> new ParenFilter(node(depth + 1));
+        case PRESENT -> new PresentFilter(attribute(depth + 1, evaluator.prefix()));
+        case COMPARE -> {
+          var operator = operator();
+          var attribute = attribute(depth + 1, evaluator.prefix());
+          yield evaluator.compare(attribute, operator, node(depth + 1));
+        }
+        case IN -> {
+          var attribute = attribute(depth + 1, evaluator.prefix());
+          var count = varint(in);
+          if (count > in.remaining()) {
+            throw malformed("list too long");
+          }
+          var values = new ArrayList<Filter>(count);
+          for (var i = 0; i < count; i++) {
+            values.add(node(depth + 1));
+          }
+          yield new InFilter(attribute, new ArrayValueFilter(values, context), context);
+        }
+        default -> throw malformed("unexpected tag " + tag);
+      };
+    }
+
+    // Sub-attributes carry no prefix, as the parser builds them.
+    private Filter attribute(int depth, String prefix) {
+      if (depth > MAX_DEPTH) {
+        throw malformed("nesting deeper than " + MAX_DEPTH);
+      }
+      var tag = in.get() & 0xFF;
+      return switch (tag) {
+        case ATTRIBUTE -> new AttributeFilter(name(), null, prefix, context);
+        case ATTRIBUTE_PATH -> {
+          var name = name();
+          yield new AttributeFilter(name, attribute(depth + 1, ""), prefix, context);
+        }
+        default -> throw malformed("expected an attribute, found tag " + tag);
+      };
+    }
+
+    private Filter literal(int tag) {
+      var kind = (tag & ~LITERAL) >>> 3;
+      var typeOrdinal = tag & 0x07;
+      if (typeOrdinal >= TYPES.length) {
+        throw malformed("unexpected tag " + tag);
+      }
+      var type = TYPES[typeOrdinal];
+      Object value =
+          switch (kind) {
+            case STRING -> string();
+            case LONG -> unzigzag(varint64(in));
+            case DOUBLE -> Double.longBitsToDouble(in.getLong());
+            case DECIMAL -> {
+              var scale = Math.toIntExact(unzigzag(varint64(in)));
+              var length = varint(in);
+              if (length > in.remaining()) {
+                throw malformed("truncated decimal");
+              }
+              var unscaled = new byte[length];
+              in.get(unscaled);
+              yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case UUID_BITS -> new UUID(in.getLong(), in.getLong()).toString();
+            case INSTANT -> {
+              var seconds = unzigzag(varint64(in));
+              yield Instant.ofEpochSecond(seconds, varint(in)).toString();
+            }
+            case NULL -> null;
+            default -> throw malformed("unexpected tag " + tag);
+          };
+      return new ValueFilter(value, type, context);
+    }
+
+    // Names and operators are spliced into the SQL, so they must be ones the grammar accepts.
+    private String name() {
+      var name = string();
+      if (!isAttributeName(name)) {
+        throw malformed("invalid attribute name");
+      }
+      return name;
+    }
+
+    private String operator() {
+      var operator = string();
+      if (!OPERATORS.contains(operator)) {
+        throw malformed("invalid comparison operator");
+      }
+      return operator;
+    }
+
+    private String string() {
+      var index = varint(in);
+      if (index >= strings.length) {
+        throw malformed("string index " + index + " out of range");
+      }
+      return strings[index];
+    }
+
+    private String utf8(int length) {
+      if (length > in.remaining()) {
+        throw malformed("truncated string");
+      }
+      String text;
+      if (in.hasArray()) {
+        text =
+            new String(
+                in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+      } else {
+        var bytes = new byte[length];
+        in.get(bytes);
+        text = new String(bytes, StandardCharsets.UTF_8);
+      }
+      return text;
+    }
+  }
+
+  // ATTRNAME: ALPHA ('-' | '_' | ':' | DIGIT | ALPHA)*
+  private static boolean isAttributeName(String name) {
+    if (name.isEmpty() || !isAlpha(name.charAt(0))) {
+      return false;
+    }
+    for (var i = 1; i < name.length(); i++) {
+      var c = name.charAt(i);
+      if (!isAlpha(c) && !(c >= '0' && c <= '9') && c != '-' && c != '_' && c != ':') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAlpha(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  private static boolean isCanonicalUuid(String text) {
+    try {
+      return UUID.fromString(text).toString().equals(text);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static boolean isCanonicalInstant(String text) {
+    try {
+      return Instant.parse(text).toString().equals(text);
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  private static int varint(ByteBuffer in) {
+    var value = varint64(in);
+    if (value > Integer.MAX_VALUE) {
+      throw malformed("length out of range");
+    }
+    return (int) value;
+  }
+
+  private static long varint64(ByteBuffer in) {
+    var value = 0L;
+    for (var shift = 0; shift < 64; shift += 7) {
+      var b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw malformed("varint too long");
+  }
+
+  private static void putVarint(ByteBuffer out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  private static int varintSize(int value) {
+    var size = 1;
+    while ((value & ~0x7F) != 0) {
+      size++;
+      value >>>= 7;
+    }
+    return size;
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static IllegalArgumentException malformed(String reason) {
+    return new IllegalArgumentException("Malformed encoded filter: " + reason);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A static cost estimate for a parsed filter, from the indexes available per attribute. It needs no
+ * database round trip, so filters can be scored before any SQL is sent. Scores are relative: a
+ * sequential scan costs {@value #SCAN}, a unique lookup {@value #UNIQUE_LOOKUP}.
+ *
+ * <ul>
+ *   <li>An indexed {@code eq}/{@code in} costs per literal, a range or {@code pr} more; {@code co}/
+ *       {@code sw}/{@code ew} need a trigram index and a pattern of at least three characters.
+ *   <li>{@code ne}, {@code not} and anything without a usable index is a scan; {@code LOWER(...)
+ *       LIKE} scans cost {@value #LIKE_SCAN} as they evaluate a function per row.
+ *   <li>{@code and} costs its cheapest operand, as Postgres drives the plan from it, plus a little
+ *       per other operand; {@code or} costs the sum of its operands.
+ * </ul>
+ *
+ * See {@link AdmissionPolicy} to act on the score.
+ */
+public final class FilterCost {
+
+  public static final double UNIQUE_LOOKUP = 1;
+  public static final double SCAN = 100;
+  public static final double LIKE_SCAN = 150;
+
+  private static final double INDEX_LOOKUP = 5;
+  private static final double INDEX_RANGE = 20;
+  private static final double TRIGRAM_MATCH = 25;
+  private static final double JSON_CONTAINS = 10;
+  private static final double CONJUNCT = 1;
+  private static final int TRIGRAM_MIN_LENGTH = 3;
+
+  /** The index, if any, that serves an attribute's column. */
+  public enum Index {
+    NONE,
+    /** A B-tree on the column: equality, ranges and {@code IS NOT NULL}. */
+    BTREE,
+    /** A unique B-tree, e.g. on {@code id} or {@code userName}. */
+    UNIQUE,
+    /**
+     * A {@code gin_trgm_ops} index on {@code LOWER(column)}: {@code co}, {@code sw}, {@code ew}.
+     */
+    TRIGRAM,
+    /** A GIN index on a {@code jsonb} column: JSON containment. */
+    GIN
+  }
+
+  private final Map<String, Index> indexes = new HashMap<>();
+
+  /**
+   * @param indexes the index per attribute path, e.g. {@code emails.value}, matched ignoring case;
+   *     attributes not listed are unindexed
+   */
+  public FilterCost(Map<String, Index> indexes) {
+    indexes.forEach((path, index) -> this.indexes.put(path.toLowerCase(Locale.ROOT), index));
+  }
+
+  public double estimate(CompiledFilter filter) {
+    return estimate(filter.filter());
+  }
+
+  public double estimate(Filter filter) {
+    return switch (filter) {
+      case ParenFilter paren -> estimate(paren.inner());
+      case AndFilter and -> Math.min(estimate(and.left()), estimate(and.right())) + CONJUNCT;
+      case OrFilter or -> estimate(or.left()) + estimate(or.right());
+      case NotFilter not -> Math.max(SCAN, estimate(not.filter()));
+      case PresentFilter present ->
+          switch (index(present.attribute())) {
+            case BTREE, UNIQUE -> INDEX_RANGE;
+            default -> SCAN;
+          };
+      case InFilter in -> {
+        var literals = in.arrayValue().values().size();
+        yield switch (index(in.attribute())) {
+          case UNIQUE -> UNIQUE_LOOKUP * literals;
+          case BTREE -> INDEX_LOOKUP * literals;
+          default -> SCAN;
+        };
+      }
+      case ComparisonFilter comparison -> comparison(comparison);
+      default -> SCAN;
+    };
+  }
+
+  private double comparison(ComparisonFilter comparison) {
+    var index = index(comparison.attribute());
+    var value = comparison.value() instanceof ValueFilter valueFilter ? valueFilter : null;
+    return switch (comparison.operator()) {
+      case "eq" -> {
+        if (value != null && value.isJson()) {
+          yield index == Index.GIN ? JSON_CONTAINS : SCAN;
+        }
+        if (value != null && value.type() == ValueFilter.ValueType.NULL) {
+          yield index == Index.BTREE || index == Index.UNIQUE ? INDEX_RANGE : SCAN;
+        }
+        yield switch (index) {
+          case UNIQUE -> UNIQUE_LOOKUP;
+          case BTREE -> INDEX_LOOKUP;
+          default -> SCAN;
+        };
+      }
+      case "gt", "ge", "lt", "le" ->
+          index == Index.BTREE || index == Index.UNIQUE ? INDEX_RANGE : SCAN;
+      case "co", "sw", "ew" ->
+          index == Index.TRIGRAM
+                  && value != null
+                  && String.valueOf(value.value()).length() >= TRIGRAM_MIN_LENGTH
+              ? TRIGRAM_MATCH
+              : LIKE_SCAN;
+      default -> SCAN;
+    };
+  }
+
+  private Index index(Filter attribute) {
+    return indexes.getOrDefault(FilterMatcher.path(attribute), Index.NONE);
+  }
+}
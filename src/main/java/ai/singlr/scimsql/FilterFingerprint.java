@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * The canonical shape of a {@link Filter}: literals replaced by typed placeholders, operands of
+ * {@code and}/{@code or} flattened and sorted, redundant parentheses and double negations removed.
+ * Filters that differ only in those respects share the same {@link #text()} and fingerprint, which
+ * makes the fingerprint a stable key for metrics, caches and slow-query reports.
+ *
+ * <p>The element count of an {@code in} list is not part of the shape. The fingerprint is
+ * MurmurHash3 (x64, 128-bit) of the UTF-8 text and is stable across JVMs and releases.
+ */
+public record FilterFingerprint(String text, long high, long low) {
+
+  public static FilterFingerprint of(Filter filter) {
+    var text = canonical(filter);
+    var hash = murmur3(text.getBytes(StandardCharsets.UTF_8));
+    return new FilterFingerprint(text, hash[0], hash[1]);
+  }
+
+  /** The 64-bit fingerprint, i.e. the first half of the 128-bit one. */
+  public long fingerprint64() {
+    return high;
+  }
+
+  /** The 128-bit fingerprint as 32 lowercase hex digits, e.g. for prepared-statement names. */
+  public String toHex() {
+    return HexFormat.of().toHexDigits(high) + HexFormat.of().toHexDigits(low);
+  }
+
+  static String canonical(Filter filter) {
+    return canonical(filter, false);
+  }
+
+  /** Like {@link #canonical(Filter)} but keeps literal values, so only equivalent filters match. */
+  static String canonicalWithLiterals(Filter filter) {
+    return canonical(filter, true);
+  }
+
+  private static String canonical(Filter filter, boolean literals) {
+    return switch (unwrap(filter)) {
+      case AndFilter and -> join(and, "and", literals);
+      case OrFilter or -> join(or, "or", literals);
+      case NotFilter not -> {
+        var inner = unwrap(not.filter());
+        yield inner instanceof NotFilter doubleNot
+            ? canonical(doubleNot.filter(), literals)
+            : "not (" + canonical(inner, literals) + ")";
+      }
+      case PresentFilter present -> present.attribute() + " pr";
+      case InFilter in -> {
+        var placeholders = new TreeSet<String>();
+        in.arrayValue().values().forEach(v -> placeholders.add(placeholder(v, literals)));
+        yield in.attribute() + " in [" + String.join(", ", placeholders) + "]";
+      }
+      case ComparisonFilter comparison ->
+          comparison.attribute()
+              + " "
+              + comparison.operator().toLowerCase(Locale.ROOT)
+              + " "
+              + placeholder(comparison.value(), literals);
+      case Filter other -> other.getClass().getName();
+    };
+  }
+
+  private static String join(Filter filter, String operator, boolean literals) {
+    var operands = new ArrayList<Filter>();
+    flatten(filter, filter.getClass(), operands);
+    var texts = new ArrayList<String>(operands.size());
+    for (var operand : operands) {
+      var text = canonical(operand, literals);
+      texts.add(
+          operand instanceof AndFilter || operand instanceof OrFilter ? "(" + text + ")" : text);
+    }
+    texts.sort(null);
+    return String.join(" " + operator + " ", texts);
+  }
+
+  private static void flatten(Filter filter, Class<?> type, List<Filter> operands) {
+    var node = unwrap(filter);
+    switch (node) {
+      case AndFilter and when type == AndFilter.class -> {
+        flatten(and.left(), type, operands);
+        flatten(and.right(), type, operands);
+      }
+      case OrFilter or when type == OrFilter.class -> {
+        flatten(or.left(), type, operands);
+        flatten(or.right(), type, operands);
+      }
+      default -> operands.add(node);
+    }
+  }
+
+  private static Filter unwrap(Filter filter) {
+    while (filter instanceof ParenFilter paren) {
+      filter = paren.inner();
+    }
+    return filter;
+  }
+
+  private static String placeholder(Filter value, boolean literals) {
+    if (!(value instanceof ValueFilter valueFilter)) {
+      return "?";
+    }
+    if (literals) {
+      // Length-prefixed so no literal text can imitate the surrounding syntax.
+      var text = String.valueOf(valueFilter.value());
+      return valueFilter.type().name().toLowerCase(Locale.ROOT)
+          + ":"
+          + valueFilter.value().getClass().getSimpleName()
+          + ":"
+          + text.length()
+          + ":"
+          + text;
+    }
+    return switch (valueFilter.type()) {
+      case NULL -> "null";
+      case STRING -> "?";
+      default -> "?" + valueFilter.type().name().toLowerCase(Locale.ROOT);
+    };
+  }
+
+  private static long[] murmur3(byte[] data) {
+    final long c1 = 0x87c37b91114253d5L;
+    final long c2 = 0x4cf5ad432745937fL;
+    var buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    long h1 = 0;
+    long h2 = 0;
+
+    var blocks = data.length / 16;
+    for (var i = 0; i < blocks; i++) {
+      var k1 = buffer.getLong(i * 16);
+      var k2 = buffer.getLong(i * 16 + 8);
+      h1 ^= mixK1(k1, c1, c2);
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2, c1, c2);
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    var offset = blocks * 16;
+    var remaining = data.length - offset;
+    long k1 = 0;
+    long k2 = 0;
+    for (var i = remaining - 1; i >= 8; i--) {
+      k2 ^= (data[offset + i] & 0xffL) << ((i - 8) * 8);
+    }
+    if (remaining > 8) {
+      h2 ^= mixK2(k2, c1, c2);
+    }
+    for (var i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+      k1 ^= (data[offset + i] & 0xffL) << (i * 8);
+    }
+    if (remaining > 0) {
+      h1 ^= mixK1(k1, c1, c2);
+    }
+
+    h1 ^= data.length;
+    h2 ^= data.length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    return new long[] {h1, h2};
+  }
+
+  private static long mixK1(long k1, long c1, long c2) {
+    return Long.rotateLeft(k1 * c1, 31) * c2;
+  }
+
+  private static long mixK2(long k2, long c1, long c2) {
+    return Long.rotateLeft(k2 * c2, 33) * c1;
+  }
+
+  private static long fmix(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A reverse index over saved filters, e.g. dynamic group rules or webhook subscriptions: given a
+ * resource, {@link #match} returns the ids of the filters it satisfies. Each filter is indexed by a
+ * necessary condition, chosen from its conjuncts in this order:
+ *
+ * <ul>
+ *   <li>an {@code eq} or {@code in} literal, looked up by hash;
+ *   <li>a {@code gt}/{@code ge} or {@code lt}/{@code le} bound, kept in sorted maps per attribute
+ *       so a resource value selects exactly the ranges that contain it;
+ *   <li>a {@code pr} attribute.
+ * </ul>
+ *
+ * <p>Only the candidates that survive the index are evaluated with {@link FilterMatcher}, so a
+ * resource change costs roughly the number of plausible filters, not the number of saved ones.
+ * Filters without any such condition (e.g. a lone {@code not} or {@code co}) are evaluated for
+ * every resource. Reads may run concurrently with each other; writes are exclusive.
+ */
+public final class FilterIndex<K> {
+
+  private static final Comparator<Object> BOUNDS = FilterIndex::compareBounds;
+
+  private final Map<K, Entry> entries = new HashMap<>();
+  private final Map<Term, Set<K>> terms = new HashMap<>();
+  private final Map<String, TreeMap<Object, Set<K>>> lowerBounds = new HashMap<>();
+  private final Map<String, TreeMap<Object, Set<K>>> upperBounds = new HashMap<>();
+  private final Map<String, Set<K>> present = new HashMap<>();
+  private final Set<K> unindexed = new LinkedHashSet<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private record Term(String attribute, Object value) {}
+
+  private sealed interface Anchor {}
+
+  private record Equals(String attribute, Object value) implements Anchor {}
+
+  private record Lower(String attribute, Object bound) implements Anchor {}
+
+  private record Upper(String attribute, Object bound) implements Anchor {}
+
+  private record Present(String attribute) implements Anchor {}
+
+  // anchors is null for filters that are evaluated for every resource.
+  private record Entry(Filter filter, List<Anchor> anchors) {}
+
+  /**
+   * Indexes {@code filter} under {@code id}, replacing any filter saved under the same id. The
+   * filter is only evaluated in memory, never rendered, so any prefix may be used to parse it.
+   *
+   * @throws IllegalArgumentException if {@link FilterMatcher} cannot evaluate the filter, e.g. it
+   *     compares a JSON literal
+   */
+  public void add(K id, Filter filter) {
+    FilterMatcher.check(filter);
+    var anchors = anchors(filter);
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+      entries.put(id, new Entry(filter, anchors));
+      if (anchors == null) {
+        unindexed.add(id);
+        return;
+      }
+      for (var anchor : anchors) {
+        switch (anchor) {
+          case Equals eq ->
+              terms
+                  .computeIfAbsent(new Term(eq.attribute(), eq.value()), t -> new HashSet<>())
+                  .add(id);
+          case Lower lower -> bucket(lowerBounds, lower.attribute(), lower.bound()).add(id);
+          case Upper upper -> bucket(upperBounds, upper.attribute(), upper.bound()).add(id);
+          case Present pr -> present.computeIfAbsent(pr.attribute(), a -> new HashSet<>()).add(id);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean remove(K id) {
+    lock.writeLock().lock();
+    try {
+      return removeLocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Ids of the saved filters that {@code resource} satisfies, in no particular order. */
+  public Set<K> match(Map<String, ?> resource) {
+    var attributes = FilterMatcher.flatten(resource);
+    lock.readLock().lock();
+    try {
+      var candidates = new HashSet<>(unindexed);
+      for (var attribute : attributes.entrySet()) {
+        var path = attribute.getKey();
+        var ids = present.get(path);
+        if (ids != null) {
+          candidates.addAll(ids);
+        }
+        var lower = lowerBounds.get(path);
+        var upper = upperBounds.get(path);
+        for (var value : attribute.getValue()) {
+          ids = terms.get(new Term(path, value));
+          if (ids != null) {
+            candidates.addAll(ids);
+          }
+          if (lower != null && isBound(value)) {
+            lower.headMap(value, true).values().forEach(candidates::addAll);
+          }
+          if (upper != null && isBound(value)) {
+            upper.tailMap(value, true).values().forEach(candidates::addAll);
+          }
+        }
+      }
+
+      var matches = new HashSet<K>();
+      for (var id : candidates) {
+        if (FilterMatcher.evaluate(entries.get(id).filter(), attributes) == Boolean.TRUE) {
+          matches.add(id);
+        }
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean removeLocked(K id) {
+    var entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    if (entry.anchors() == null) {
+      unindexed.remove(id);
+      return true;
+    }
+    for (var anchor : entry.anchors()) {
+      switch (anchor) {
+        case Equals eq -> removeFrom(terms, new Term(eq.attribute(), eq.value()), id);
+        case Lower lower -> removeFrom(lowerBounds.get(lower.attribute()), lower.bound(), id);
+        case Upper upper -> removeFrom(upperBounds.get(upper.attribute()), upper.bound(), id);
+        case Present pr -> removeFrom(present, pr.attribute(), id);
+      }
+    }
+    return true;
+  }
+
+  private static <T, K> void removeFrom(Map<T, Set<K>> map, T key, K id) {
+    var ids = map.get(key);
+    if (ids != null && ids.remove(id) && ids.isEmpty()) {
+      map.remove(key);
+    }
+  }
+
+  private Set<K> bucket(
+      Map<String, TreeMap<Object, Set<K>>> bounds, String attribute, Object bound) {
+    return bounds
+        .computeIfAbsent(attribute, a -> new TreeMap<>(BOUNDS))
+        .computeIfAbsent(bound, b -> new HashSet<>());
+  }
+
+  /** A necessary condition for {@code filter} as alternatives, or null if there is none. */
+  private static List<Anchor> anchors(Filter filter) {
+    return switch (filter) {
+      case ParenFilter paren -> anchors(paren.inner());
+      case AndFilter and -> {
+        var left = anchors(and.left());
+        var right = anchors(and.right());
+        yield left == null
+            ? right
+            : right == null ? left : rank(left) <= rank(right) ? left : right;
+      }
+      case OrFilter or -> {
+        var left = anchors(or.left());
+        var right = anchors(or.right());
+        if (left == null || right == null) {
+          yield null;
+        }
+        var union = new ArrayList<>(left);
+        union.addAll(right);
+        yield union;
+      }
+      case PresentFilter pr -> List.of(new Present(FilterMatcher.path(pr.attribute())));
+      case InFilter in ->
+          in.arrayValue().values().stream()
+              .<Anchor>map(
+                  v -> new Equals(FilterMatcher.path(in.attribute()), FilterMatcher.literal(v)))
+              .toList();
+      case ComparisonFilter comparison -> comparisonAnchors(comparison);
+      default -> null;
+    };
+  }
+
+  private static List<Anchor> comparisonAnchors(ComparisonFilter comparison) {
+    if (!(comparison.value() instanceof ValueFilter value)
+        || value.type() == ValueFilter.ValueType.NULL
+        || value.type() == ValueFilter.ValueType.JSON) {
+      return null;
+    }
+    var attribute = FilterMatcher.path(comparison.attribute());
+    var literal = FilterMatcher.literal(value);
+    return switch (comparison.operator()) {
+      case "eq" -> List.of(new Equals(attribute, literal));
+      case "gt", "ge" -> isBound(literal) ? List.of(new Lower(attribute, literal)) : null;
+      case "lt", "le" -> isBound(literal) ? List.of(new Upper(attribute, literal)) : null;
+      default -> null;
+    };
+  }
+
+  // Lower is better: equality alternatives first (fewer is more selective), then ranges, then pr.
+  private static int rank(List<Anchor> anchors) {
+    var worst = 0;
+    for (var anchor : anchors) {
+      worst =
+          Math.max(
+              worst,
+              switch (anchor) {
+                case Equals eq -> 0;
+                case Lower lower -> 1;
+                case Upper upper -> 1;
+                case Present pr -> 2;
+              });
+    }
+    return worst * 1_000_000 + anchors.size();
+  }
+
+  private static boolean isBound(Object value) {
+    return value instanceof Comparable<?> && !(value instanceof Boolean);
+  }
+
+  // Orders bounds of different types by type name so one map per attribute can hold them all.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static int compareBounds(Object a, Object b) {
+    if (a.getClass() != b.getClass()) {
+      return a.getClass().getName().compareTo(b.getClass().getName());
+    }
+    return ((Comparable) a).compareTo(b);
+  }
+}
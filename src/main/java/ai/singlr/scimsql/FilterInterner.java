@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hash-conses the nodes of parsed filters, for processes that keep many filters resident, e.g.
+ * saved searches or subscriptions held in a {@link FilterIndex}. Filters parsed through the same
+ * interner share every structurally identical subtree, attribute path and string, so a population
+ * of filters costs roughly its distinct parts. A subtree is shared from its second occurrence on,
+ * so parts unique to one filter cost no table entry. The table holds nodes weakly: a node no live
+ * filter references is collected as usual. Safe for concurrent use.
+ *
+ * <p>Nodes are built bottom-up, so comparing a node only needs its children's identity and hashing
+ * never walks a subtree. Interned filters share one {@link Context} and are meant for in-memory use
+ * ({@link FilterMatcher}, {@link FilterIndex}, {@link FilterFingerprint}, {@link SqlExpression});
+ * rendering one with {@link Filter#toClause()} throws, use {@link ScimEngine#compileFilter}
+ * instead.
+ */
+public final class FilterInterner {
+
+  private final ConcurrentHashMap<Key, Key> table = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+  private final Context context = new SharedContext();
+
+  /** The number of live interned nodes and strings, including some awaiting cleanup. */
+  public int size() {
+    purge();
+    return table.size();
+  }
+
+  Context context() {
+    return context;
+  }
+
+  /**
+   * The canonical instance equal to {@code value}, which must be a string or a filter node whose
+   * children are already interned. Other values are returned unchanged.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T intern(T value) {
+    if (value == null || !internable(value)) {
+      return value;
+    }
+    purge();
+    // A node with a child seen only once is likely unique too, e.g. the spine above a literal of
+    // its own, so it stays out of the table and saves an entry. A subtree is therefore shared from
+    // its second occurrence on; the first copy stays private to its filter.
+    var leaf = isLeaf(value);
+    if (!leaf && !childrenShared(value)) {
+      return value;
+    }
+    while (true) {
+      var key = new Key(value, queue);
+      key.shared = !leaf;
+      var existing = table.putIfAbsent(key, key);
+      if (existing == null) {
+        return value;
+      }
+      var canonical = existing.get();
+      if (canonical != null) {
+        existing.shared = true;
+        return (T) canonical;
+      }
+      // Collected but not purged yet.
+      table.remove(existing, existing);
+    }
+  }
+
+  private static boolean isLeaf(Object value) {
+    return value instanceof String
+        || value instanceof ValueFilter v && !(v.value() instanceof String);
+  }
+
+  private boolean childrenShared(Object node) {
+    return switch (node) {
+      case AttributeFilter a -> shared(a.name()) && shared(a.subAttribute());
+      case ValueFilter v -> shared(v.value());
+      case ArrayValueFilter a -> a.values().stream().allMatch(this::shared);
+      case ComparisonFilter c -> shared(c.attribute()) && shared(c.value());
+      case InFilter i -> shared(i.attribute()) && shared(i.arrayValue());
+      case PresentFilter p -> shared(p.attribute());
+      case AndFilter a -> shared(a.left()) && shared(a.right());
+      case OrFilter o -> shared(o.left()) && shared(o.right());
+      case NotFilter n -> shared(n.filter());
+      case ParenFilter p -> shared(p.inner());
+      default -> true;
+    };
+  }
+
+  private boolean shared(Object node) {
+    if (node == null) {
+      return true;
+    }
+    var key = table.get(new Key(node, null));
+    return key != null && key.shared && key.get() == node;
+  }
+
+  private void purge() {
+    for (var ref = queue.poll(); ref != null; ref = queue.poll()) {
+      var key = (Key) ref;
+      table.remove(key, key);
+    }
+  }
+
+  private static boolean internable(Object value) {
+    return switch (value) {
+      case String s -> true;
+      // Custom comparison nodes may carry state we cannot see.
+      case ComparisonFilter comparison -> comparison.getClass() == ComparisonFilter.class;
+      case AttributeFilter a -> true;
+      case ValueFilter v -> true;
+      case ArrayValueFilter a -> true;
+      case InFilter i -> true;
+      case PresentFilter p -> true;
+      case AndFilter a -> true;
+      case OrFilter o -> true;
+      case NotFilter n -> true;
+      case ParenFilter p -> true;
+      default -> false;
+    };
+  }
+
+  // Children are canonical, so they are compared and hashed by identity.
+  private static int shallowHash(Object node) {
+    return switch (node) {
+      case String s -> s.hashCode();
+      case AttributeFilter a ->
+          hash(a.getClass(), a.name(), a.subAttribute(), a.prefix(), a.context());
+      case ValueFilter v -> hash(v.getClass(), Objects.hashCode(v.value()), v.type(), v.context());
+      case ArrayValueFilter a -> {
+        var hash = id(a.context());
+        for (var value : a.values()) {
+          hash = 31 * hash + id(value);
+        }
+        yield hash;
+      }
+      case ComparisonFilter c ->
+          hash(c.getClass(), c.attribute(), c.operator(), c.value(), c.context());
+      case InFilter i -> hash(i.getClass(), i.attribute(), i.arrayValue(), i.context());
+      case PresentFilter p -> hash(p.getClass(), p.attribute());
+      case AndFilter a -> hash(a.getClass(), a.left(), a.right());
+      case OrFilter o -> hash(o.getClass(), o.left(), o.right());
+      case NotFilter n -> hash(n.getClass(), n.filter());
+      case ParenFilter p -> hash(p.getClass(), p.inner());
+      default -> throw new IllegalStateException("Not internable: " + node.getClass());
+    };
+  }
+
+  private static boolean shallowEquals(Object a, Object b) {
+    if (a == b) {
+      return true;
+    }
+    if (a == null || b == null || a.getClass() != b.getClass()) {
+      return false;
+    }
+    return switch (a) {
+      case String s -> s.equals(b);
+      case AttributeFilter x when b instanceof AttributeFilter y ->
+          x.name() == y.name()
+              && x.subAttribute() == y.subAttribute()
+              && x.prefix() == y.prefix()
+              && x.context() == y.context();
+      case ValueFilter x when b instanceof ValueFilter y ->
+          Objects.equals(x.value(), y.value())
+              && x.type() == y.type()
+              && x.context() == y.context();
+      case ArrayValueFilter x when b instanceof ArrayValueFilter y ->
+          x.context() == y.context() && sameElements(x.values(), y.values());
+      case ComparisonFilter x when b instanceof ComparisonFilter y ->
+          x.attribute() == y.attribute()
+              && x.operator() == y.operator()
+              && x.value() == y.value()
+              && x.context() == y.context();
+      case InFilter x when b instanceof InFilter y ->
+          x.attribute() == y.attribute()
+              && x.arrayValue() == y.arrayValue()
+              && x.context() == y.context();
+      case PresentFilter x when b instanceof PresentFilter y -> x.attribute() == y.attribute();
+      case AndFilter x when b instanceof AndFilter y ->
+          x.left() == y.left() && x.right() == y.right();
+      case OrFilter x when b instanceof OrFilter y ->
+          x.left() == y.left() && x.right() == y.right();
+      case NotFilter x when b instanceof NotFilter y -> x.filter() == y.filter();
+      case ParenFilter x when b instanceof ParenFilter y -> x.inner() == y.inner();
+      default -> false;
+    };
+  }
+
+  private static boolean sameElements(List<Filter> a, List<Filter> b) {
+    if (a.size() != b.size()) {
+      return false;
+    }
+    for (var i = 0; i < a.size(); i++) {
+      if (a.get(i) != b.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(Object... parts) {
+    var hash = 1;
+    for (var part : parts) {
+      hash = 31 * hash + (part instanceof Integer i ? i : id(part));
+    }
+    return hash;
+  }
+
+  private static int id(Object part) {
+    return System.identityHashCode(part);
+  }
+
+  /** A weak table entry; equal to another entry holding a node of the same shape. */
+  private static final class Key extends WeakReference<Object> {
+    private final int hash;
+    private volatile boolean shared;
+
+    Key(Object value, ReferenceQueue<Object> queue) {
+      super(value, queue);
+      this.hash = shallowHash(value);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key key) || key.hash != hash) {
+        return false;
+      }
+      var value = get();
+      return value != null && shallowEquals(value, key.get());
+    }
+  }
+
+  /** Shared by all interned nodes; rendering would record parameters from every filter here. */
+  private static final class SharedContext extends Context {
+    @Override
+    public String process(Filter attribute, Filter value, Function<String, String> keyMapper) {
+      throw unsupported();
+    }
+
+    @Override
+    public String processArray(
+        Filter attribute, List<Filter> valueFilters, Function<String, String> keyMapper) {
+      throw unsupported();
+    }
+
+    private static IllegalStateException unsupported() {
+      return new IllegalStateException(
+          "Interned filters cannot be rendered; compile the expression instead");
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Builds filter nodes while the parser runs, so no parse tree is needed. Rules exit in postfix
+ * order, each after its operands, so every exit pops its operands' nodes off a stack and pushes its
+ * own. Without a tree, contexts have no children; tokens are read from the rule's start and stop
+ * tokens and its labels instead. The nodes are those {@link ScimEvaluator} builds from the tree.
+ *
+ * <p>Rules also exit while a syntax error unwinds the parser, with operands missing. The listener
+ * never throws from an exit, so the syntax error is what propagates; a failure to build a node from
+ * valid syntax, such as a numeric literal out of range, is rethrown by {@link #result()}.
+ */
+final class FilterListener implements ParseTreeListener {
+
+  private final ScimEvaluator evaluator;
+  private final List<Filter> stack = new ArrayList<>();
+  // Stack sizes where the open array values begin.
+  private final List<Integer> arrays = new ArrayList<>();
+  private RuntimeException failure;
+
+  FilterListener(ScimEvaluator evaluator) {
+    this.evaluator = evaluator;
+  }
+
+  /** The filter, once the parser returned. */
+  Filter result() {
+    if (failure != null) {
+      throw failure;
+    }
+    if (stack.size() != 1) {
+      throw new IllegalStateException("Incomplete filter: " + stack.size() + " nodes left");
+    }
+    return stack.getFirst();
+  }
+
+  @Override
+  public void enterEveryRule(ParserRuleContext ctx) {
+    if (ctx instanceof ScimParser.ArrayValueContext) {
+      arrays.add(stack.size());
+    }
+  }
+
+  @Override
+  public void exitEveryRule(ParserRuleContext ctx) {
+    if (failure != null) {
+      return;
+    }
+    try {
+      exit(ctx);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+  }
+
+  private void exit(ParserRuleContext ctx) {
+    switch (ctx) {
+      case ScimParser.ParenExpContext paren ->
+          push(evaluator.paren(paren.start.getType() == ScimParser.NOT, pop()));
+      case ScimParser.LogicalExpContext logical -> {
+        var right = pop();
+        push(evaluator.logical(logical.op.getText(), pop(), right));
+      }
+      case ScimParser.PresentExpContext present -> push(evaluator.present(pop()));
+      case ScimParser.InExpContext in -> {
+        var values = pop();
+        push(evaluator.in(pop(), values));
+      }
+      case ScimParser.CompareExpContext compare -> {
+        var value = pop();
+        push(evaluator.compare(pop(), compare.op.getText(), value));
+      }
+      case ScimParser.AttrPathContext attrPath -> attrPath(attrPath);
+      case ScimParser.ArrayValueContext array -> {
+        var from = arrays.removeLast();
+        var elements = stack.subList(from, stack.size());
+        var values = new ArrayList<>(elements);
+        elements.clear();
+        push(evaluator.array(values));
+      }
+      case ScimParser.BooleanContext value -> push(evaluator.booleanValue(value.start.getText()));
+      case ScimParser.NullContext value -> push(evaluator.nullValue());
+      case ScimParser.UuidStringContext value -> push(evaluator.uuidValue(value.start.getText()));
+      case ScimParser.TimestampStringContext value ->
+          push(evaluator.timestampValue(value.start.getText()));
+      case ScimParser.StringContext value -> push(evaluator.stringValue(value.start.getText()));
+      case ScimParser.DoubleContext value ->
+          push(evaluator.numberValue(value.start.getText(), true));
+      case ScimParser.LongContext value -> {
+        // '-'? (INT | INT_EXP): the sign is its own token.
+        var text = value.start == value.stop ? value.start.getText() : "-" + value.stop.getText();
+        push(evaluator.numberValue(text, false));
+      }
+      case ScimParser.JsonStringContext value -> push(evaluator.jsonValue(value.start.getText()));
+      default -> {}
+    }
+  }
+
+  // ATTRNAME subAttr?, where subAttr is '.' attrPath: the nested path has exited already.
+  private void attrPath(ScimParser.AttrPathContext ctx) {
+    var subAttr = ctx.start != ctx.stop ? pop() : null;
+    var name = ctx.start.getText();
+    if (ctx.getParent() instanceof ScimParser.SubAttrContext) {
+      // As ScimEvaluator#visitSubAttr, a sub-attribute keeps only its own name.
+      push(evaluator.subAttribute(name));
+    } else {
+      push(evaluator.attribute(name, subAttr));
+    }
+  }
+
+  private void push(Filter filter) {
+    stack.add(filter);
+  }
+
+  private Filter pop() {
+    return stack.removeLast();
+  }
+
+  @Override
+  public void visitTerminal(TerminalNode node) {}
+
+  @Override
+  public void visitErrorNode(ErrorNode node) {}
+}
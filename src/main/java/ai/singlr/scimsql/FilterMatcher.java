@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evaluates a {@link Filter} against an in-memory resource instead of a table row. A resource is a
+ * map of attribute names (matched case-insensitively) to values; nested maps hold sub-attributes
+ * and collections hold multi-valued attributes, which match if any element does.
+ *
+ * <p>Comparisons follow the generated SQL: {@code eq}, {@code ne} and ordering are exact, {@code
+ * co}/{@code sw}/{@code ew} ignore case, and a comparison on a missing attribute is unknown, so
+ * {@code not} does not turn it into a match. As in RFC 7644, {@code eq null} matches a missing
+ * attribute. Values should be typed: numbers, booleans, {@link UUID}s and {@link Instant} or {@link
+ * OffsetDateTime} timestamps. JSON comparisons are not supported.
+ */
+public final class FilterMatcher {
+
+  private FilterMatcher() {}
+
+  public static boolean matches(Filter filter, Map<String, ?> resource) {
+    return evaluate(filter, flatten(resource)) == Boolean.TRUE;
+  }
+
+  /** Resource values by lower-case attribute path, e.g. {@code emails.value}. */
+  static Map<String, List<Object>> flatten(Map<String, ?> resource) {
+    var attributes = new HashMap<String, List<Object>>();
+    flatten("", resource, attributes);
+    return attributes;
+  }
+
+  private static void flatten(String path, Object value, Map<String, List<Object>> attributes) {
+    switch (value) {
+      case null -> {}
+      case Map<?, ?> map -> {
+        if (!path.isEmpty()) {
+          // A complex attribute is present even though only its sub-attributes carry values.
+          attributes.computeIfAbsent(path, p -> new ArrayList<>());
+        }
+        for (var entry : map.entrySet()) {
+          var key = entry.getKey().toString().toLowerCase(Locale.ROOT);
+          flatten(path.isEmpty() ? key : path + "." + key, entry.getValue(), attributes);
+        }
+      }
+      case Collection<?> collection -> collection.forEach(v -> flatten(path, v, attributes));
+      default -> attributes.computeIfAbsent(path, p -> new ArrayList<>()).add(normalize(value));
+    }
+  }
+
+  /** Three-valued: {@code null} means unknown, as a SQL comparison with NULL. */
+  static Boolean evaluate(Filter filter, Map<String, List<Object>> attributes) {
+    return switch (filter) {
+      case ParenFilter paren -> evaluate(paren.inner(), attributes);
+      case AndFilter and -> {
+        var left = evaluate(and.left(), attributes);
+        if (left == Boolean.FALSE) {
+          yield false;
+        }
+        var right = evaluate(and.right(), attributes);
+        yield right == Boolean.FALSE ? Boolean.FALSE : left == null || right == null ? null : true;
+      }
+      case OrFilter or -> {
+        var left = evaluate(or.left(), attributes);
+        if (left == Boolean.TRUE) {
+          yield true;
+        }
+        var right = evaluate(or.right(), attributes);
+        yield right == Boolean.TRUE ? Boolean.TRUE : left == null || right == null ? null : false;
+      }
+      case NotFilter not -> {
+        var inner = evaluate(not.filter(), attributes);
+        yield inner == null ? null : !inner;
+      }
+      case PresentFilter present -> {
+        var values = attributes.get(path(present.attribute()));
+        yield values != null && (values.isEmpty() || values.stream().anyMatch(v -> !"".equals(v)));
+      }
+      case InFilter in -> {
+        var values = attributes.get(path(in.attribute()));
+        if (values == null) {
+          yield null;
+        }
+        var literals = in.arrayValue().values().stream().map(FilterMatcher::literal).toList();
+        yield values.stream().anyMatch(literals::contains);
+      }
+      case ComparisonFilter comparison -> compare(comparison, attributes);
+      default ->
+          throw new IllegalArgumentException(
+              "Unsupported filter node: " + filter.getClass().getSimpleName());
+    };
+  }
+
+  /**
+   * Throws what {@link #evaluate} would throw for some resource: unsupported nodes and literals,
+   * such as JSON, that cannot be compared in memory.
+   */
+  static void check(Filter filter) {
+    switch (filter) {
+      case ParenFilter paren -> check(paren.inner());
+      case AndFilter and -> {
+        check(and.left());
+        check(and.right());
+      }
+      case OrFilter or -> {
+        check(or.left());
+        check(or.right());
+      }
+      case NotFilter not -> check(not.filter());
+      case PresentFilter present -> {}
+      case InFilter in -> in.arrayValue().values().forEach(FilterMatcher::literal);
+      case ComparisonFilter comparison -> {
+        if (!(comparison.value() instanceof ValueFilter value
+            && value.type() == ValueFilter.ValueType.NULL)) {
+          literal(comparison.value());
+        }
+      }
+      default ->
+          throw new IllegalArgumentException(
+              "Unsupported filter node: " + filter.getClass().getSimpleName());
+    }
+  }
+
+  private static Boolean compare(
+      ComparisonFilter comparison, Map<String, List<Object>> attributes) {
+    var values = attributes.get(path(comparison.attribute()));
+    var operator = comparison.operator();
+    if (comparison.value() instanceof ValueFilter value
+        && value.type() == ValueFilter.ValueType.NULL) {
+      return switch (operator) {
+        case "eq" -> values == null;
+        case "ne" -> values != null;
+        default -> null;
+      };
+    }
+
+    var literal = literal(comparison.value());
+    if (values == null) {
+      return null;
+    }
+    for (var value : values) {
+      if (compare(operator, value, literal)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static boolean compare(String operator, Object value, Object literal) {
+    return switch (operator) {
+      case "eq" -> value.equals(literal);
+      case "ne" -> !value.equals(literal);
+      case "co" -> lower(value).contains(lower(literal));
+      case "sw" -> lower(value).startsWith(lower(literal));
+      case "ew" -> lower(value).endsWith(lower(literal));
+      case "gt", "lt", "ge", "le" -> {
+        if (!(value instanceof Comparable comparable) || value.getClass() != literal.getClass()) {
+          yield false;
+        }
+        var order = comparable.compareTo(literal);
+        yield switch (operator) {
+          case "gt" -> order > 0;
+          case "lt" -> order < 0;
+          case "ge" -> order >= 0;
+          default -> order <= 0;
+        };
+      }
+      default -> throw new IllegalArgumentException("Unsupported operator: " + operator);
+    };
+  }
+
+  private static String lower(Object value) {
+    return value.toString().toLowerCase(Locale.ROOT);
+  }
+
+  static String path(Filter attribute) {
+    return attribute.toString().toLowerCase(Locale.ROOT);
+  }
+
+  /** The literal of a value node, normalized like resource values. */
+  static Object literal(Filter value) {
+    if (!(value instanceof ValueFilter valueFilter)) {
+      throw new IllegalArgumentException("Not a literal: " + value);
+    }
+    return switch (valueFilter.type()) {
+      case JSON ->
+          throw new IllegalArgumentException("JSON comparisons cannot be matched in memory");
+      case UUID -> UUID.fromString(valueFilter.value().toString());
+      case TIMESTAMP -> Instant.parse(valueFilter.value().toString());
+      default -> normalize(valueFilter.value());
+    };
+  }
+
+  /**
+   * Numbers become {@link BigDecimal}s and timestamps {@link Instant}s so equal values compare
+   * equal.
+   */
+  static Object normalize(Object value) {
+    return switch (value) {
+      case BigDecimal decimal -> decimal.stripTrailingZeros();
+      case Double d -> BigDecimal.valueOf(d).stripTrailingZeros();
+      case Float f -> BigDecimal.valueOf(f.doubleValue()).stripTrailingZeros();
+      case BigInteger big -> new BigDecimal(big).stripTrailingZeros();
+      case Number number -> BigDecimal.valueOf(number.longValue()).stripTrailingZeros();
+      case OffsetDateTime odt -> odt.toInstant();
+      case ZonedDateTime zdt -> zdt.toInstant();
+      default -> value;
+    };
+  }
+}
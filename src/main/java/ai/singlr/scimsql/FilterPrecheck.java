@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.List;
+
+/**
+ * A single pass over the raw input that rejects what the lexer could never tokenize, or what cannot
+ * start a filter, before ANTLR is involved. It only rejects input the parser would reject too;
+ * everything else is left to the grammar.
+ */
+final class FilterPrecheck {
+
+  private static final List<String> FILTER_START = List.of("ATTRNAME", "'('", "'not'");
+
+  private FilterPrecheck() {}
+
+  static void check(String input) {
+    if (input == null || input.isEmpty()) {
+      throw new ScimFilterException(0, null, () -> FILTER_START);
+    }
+    var first = input.charAt(0);
+    if (!isAlpha(first) && first != '(') {
+      throw new ScimFilterException(0, text(input, 0), () -> FILTER_START);
+    }
+
+    var length = input.length();
+    var i = 0;
+    while (i < length) {
+      var c = input.charAt(i);
+      if (c == '"') {
+        i = skipString(input, i);
+      } else if (isTokenChar(c)) {
+        i++;
+      } else {
+        throw new ScimFilterException(i, text(input, i), null);
+      }
+    }
+  }
+
+  // Returns the index after the closing quote of the string starting at start.
+  private static int skipString(String input, int start) {
+    var length = input.length();
+    var i = start + 1;
+    while (i < length) {
+      var c = input.charAt(i);
+      if (c == '"') {
+        return i + 1;
+      }
+      if (c != '\\') {
+        i++;
+        continue;
+      }
+      if (i + 1 >= length) {
+        break;
+      }
+      var escaped = input.charAt(i + 1);
+      if ("\"\\/bfnrt".indexOf(escaped) >= 0) {
+        i += 2;
+      } else if (escaped == 'u' && isHex(input, i + 2, 4)) {
+        i += 6;
+      } else {
+        throw new ScimFilterException(i, input.substring(i, i + 2), null);
+      }
+    }
+    throw new ScimFilterException(start, input.substring(start), () -> List.of("'\"'"));
+  }
+
+  private static boolean isTokenChar(char c) {
+    return isAlpha(c)
+        || (c >= '0' && c <= '9')
+        || switch (c) {
+          case ' ', '(', ')', '[', ']', ',', '.', '-', '_', ':', '+' -> true;
+          default -> false;
+        };
+  }
+
+  private static boolean isAlpha(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isHex(String input, int from, int count) {
+    if (from + count > input.length()) {
+      return false;
+    }
+    for (var i = from; i < from + count; i++) {
+      if (Character.digit(input.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String text(String input, int index) {
+    return input.substring(index, index + Character.charCount(input.codePointAt(index)));
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Caches the rows of filtered list queries against one table. A filter equivalent to a cached one
+ * (same conditions in any order) is a hit; a filter contained by a cached one, e.g. {@code active
+ * eq true and title sw "Eng"} after {@code active eq true}, is answered by narrowing the cached
+ * rows with {@link FilterMatcher}. Containment covers extra conjuncts, narrower ranges, smaller
+ * {@code in} sets and longer {@code sw}/{@code ew}/{@code co} patterns.
+ *
+ * <p>Cache the complete, unpaged result of a filter, and make sure each row converts to a resource
+ * holding every attribute the filter references. Writes invalidate by attribute: {@link
+ * #invalidate} drops the entries whose filters reference any of the given attributes, so membership
+ * stays correct. Rows themselves are snapshots, so an entry is not narrowed by a filter that
+ * references an attribute invalidated after the entry was cached. Invalidate every attribute a
+ * write changed, or all of them when a resource is created or deleted.
+ *
+ * <pre>{@code
+ * var cache = new FilterResultCache<User>(User::toResource, 1_000);
+ * var version = cache.version();
+ * var rows = cache.get(filter).orElseGet(() -> {
+ *   var loaded = query(filter);
+ *   cache.put(filter, loaded, version);
+ *   return loaded;
+ * });
+ * }</pre>
+ */
+public final class FilterResultCache<R> {
+
+  /** Lookups answered exactly, answered from a containing entry, and not answered. */
+  public record Stats(long hits, long subsumed, long misses) {}
+
+  // Not a valid attribute name, so no caller can pass it.
+  private static final String ANY = "*";
+
+  // version is the cache version the rows were read at.
+  private record Entry<R>(Filter filter, List<R> rows, Set<String> attributes, long version) {}
+
+  private final Function<? super R, ? extends Map<String, ?>> toResource;
+  private final int maxEntries;
+  // Access order, so the first entry is the least recently used.
+  private final LinkedHashMap<String, Entry<R>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Set<String>> keysByAttribute = new HashMap<>();
+  // The version of the latest invalidation of each attribute root.
+  private final Map<String, Long> invalidatedAt = new HashMap<>();
+  private long version;
+  private long hits;
+  private long subsumed;
+  private long misses;
+
+  /**
+   * @param toResource converts a cached row to a resource map for {@link FilterMatcher}
+   * @param maxEntries the number of filters kept; the least recently used is evicted first
+   */
+  public FilterResultCache(
+      Function<? super R, ? extends Map<String, ?>> toResource, int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+    }
+    this.toResource = toResource;
+    this.maxEntries = maxEntries;
+  }
+
+  public Optional<List<R>> get(CompiledFilter filter) {
+    return get(filter.filter());
+  }
+
+  /**
+   * The rows matching {@code filter}, if it is cached or contained by a cached filter. Of several
+   * containing entries the smallest is narrowed. Only entries cached after the latest invalidation
+   * of every attribute {@code filter} references are narrowed, since their rows are snapshots.
+   * Filters with comparisons from a compare filter builder are never cached.
+   */
+  public Optional<List<R>> get(Filter filter) {
+    Entry<R> containing = null;
+    synchronized (this) {
+      if (!cacheable(filter)) {
+        misses++;
+        return Optional.empty();
+      }
+      var key = FilterFingerprint.canonicalWithLiterals(filter);
+      var entry = entries.get(key);
+      if (entry != null) {
+        hits++;
+        return Optional.of(entry.rows());
+      }
+      if (FilterSubsumption.matchable(filter)) {
+        var attributes = new HashSet<String>();
+        collectAttributes(filter, attributes);
+        var invalidated = 0L;
+        for (var attribute : attributes) {
+          invalidated = Math.max(invalidated, invalidatedAt.getOrDefault(attribute, 0L));
+        }
+        for (var candidate : entries.values()) {
+          if ((containing == null || candidate.rows().size() < containing.rows().size())
+              && candidate.version() >= invalidated
+              && FilterSubsumption.implies(filter, candidate.filter())) {
+            containing = candidate;
+          }
+        }
+      }
+      if (containing == null) {
+        misses++;
+        return Optional.empty();
+      }
+      subsumed++;
+    }
+
+    var rows = new ArrayList<R>();
+    for (var row : containing.rows()) {
+      if (FilterMatcher.matches(filter, toResource.apply(row))) {
+        rows.add(row);
+      }
+    }
+    return Optional.of(Collections.unmodifiableList(rows));
+  }
+
+  /**
+   * The current version, to pass to {@link #put(CompiledFilter, List, long)}. Read it before
+   * running the query.
+   */
+  public synchronized long version() {
+    return version;
+  }
+
+  public void put(CompiledFilter filter, List<R> rows) {
+    put(filter.filter(), rows);
+  }
+
+  public synchronized void put(Filter filter, List<R> rows) {
+    put(filter, rows, version);
+  }
+
+  /**
+   * Caches {@code rows} unless an invalidation happened since {@code version} was read, in which
+   * case they may already be stale.
+   */
+  public void put(CompiledFilter filter, List<R> rows, long version) {
+    put(filter.filter(), rows, version);
+  }
+
+  public synchronized void put(Filter filter, List<R> rows, long version) {
+    if (version != this.version || !cacheable(filter)) {
+      return;
+    }
+    var key = FilterFingerprint.canonicalWithLiterals(filter);
+    removeLocked(key);
+    var attributes = new HashSet<String>();
+    collectAttributes(filter, attributes);
+    entries.put(
+        key,
+        new Entry<>(
+            filter, Collections.unmodifiableList(new ArrayList<>(rows)), attributes, version));
+    for (var attribute : attributes) {
+      keysByAttribute.computeIfAbsent(attribute, a -> new HashSet<>()).add(key);
+    }
+
+    Iterator<Map.Entry<String, Entry<R>>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries) {
+      var evicted = eldest.next();
+      eldest.remove();
+      unindex(evicted.getKey(), evicted.getValue());
+    }
+  }
+
+  /**
+   * Drops the entries whose filters reference any of {@code attributes}. A sub-attribute such as
+   * {@code name.familyName} invalidates its whole complex attribute. Remaining entries are no
+   * longer narrowed for filters that reference them.
+   */
+  public synchronized void invalidate(String... attributes) {
+    version++;
+    var roots = new ArrayList<String>(attributes.length + 1);
+    for (var attribute : attributes) {
+      var root = root(attribute);
+      roots.add(root);
+      invalidatedAt.put(root, version);
+    }
+    roots.add(ANY);
+    for (var root : roots) {
+      var keys = keysByAttribute.get(root);
+      if (keys != null) {
+        for (var key : List.copyOf(keys)) {
+          removeLocked(key);
+        }
+      }
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    version++;
+    entries.clear();
+    keysByAttribute.clear();
+    // Every entry from now on is newer than any earlier invalidation.
+    invalidatedAt.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(hits, subsumed, misses);
+  }
+
+  private void removeLocked(String key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      unindex(key, entry);
+    }
+  }
+
+  private void unindex(String key, Entry<R> entry) {
+    for (var attribute : entry.attributes()) {
+      var keys = keysByAttribute.get(attribute);
+      if (keys != null && keys.remove(key) && keys.isEmpty()) {
+        keysByAttribute.remove(attribute);
+      }
+    }
+  }
+
+  // The cache key ignores node classes, so custom comparisons would share keys with plain ones.
+  private static boolean cacheable(Filter filter) {
+    return switch (filter) {
+      case ParenFilter paren -> cacheable(paren.inner());
+      case AndFilter and -> cacheable(and.left()) && cacheable(and.right());
+      case OrFilter or -> cacheable(or.left()) && cacheable(or.right());
+      case NotFilter not -> cacheable(not.filter());
+      case ComparisonFilter comparison -> comparison.getClass() == ComparisonFilter.class;
+      default -> true;
+    };
+  }
+
+  private static void collectAttributes(Filter filter, Set<String> attributes) {
+    switch (filter) {
+      case ParenFilter paren -> collectAttributes(paren.inner(), attributes);
+      case AndFilter and -> {
+        collectAttributes(and.left(), attributes);
+        collectAttributes(and.right(), attributes);
+      }
+      case OrFilter or -> {
+        collectAttributes(or.left(), attributes);
+        collectAttributes(or.right(), attributes);
+      }
+      case NotFilter not -> collectAttributes(not.filter(), attributes);
+      case PresentFilter present -> attributes.add(root(present.attribute().toString()));
+      case InFilter in -> attributes.add(root(in.attribute().toString()));
+      case ComparisonFilter comparison -> attributes.add(root(comparison.attribute().toString()));
+      // Nodes we cannot see into are dropped by every invalidation.
+      default -> attributes.add(ANY);
+    }
+  }
+
+  private static String root(String attribute) {
+    var dot = attribute.indexOf('.');
+    return (dot < 0 ? attribute : attribute.substring(0, dot)).toLowerCase(Locale.ROOT);
+  }
+}
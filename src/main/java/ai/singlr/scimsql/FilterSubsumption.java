@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides whether one filter is contained by another, i.e. every row matching the narrower filter
+ * also matches the wider one. The check is sound but incomplete: {@code false} only means no proof
+ * was found. Nodes other than the built-in ones are compared by their canonical text.
+ */
+final class FilterSubsumption {
+
+  private FilterSubsumption() {}
+
+  /** True if every row matching {@code narrower} also matches {@code wider}. */
+  static boolean implies(Filter narrower, Filter wider) {
+    var a = unwrap(narrower);
+    var b = unwrap(wider);
+    if (b instanceof AndFilter and) {
+      return implies(a, and.left()) && implies(a, and.right());
+    }
+    if (a instanceof OrFilter or) {
+      return implies(or.left(), b) && implies(or.right(), b);
+    }
+    if (a instanceof AndFilter and && (implies(and.left(), b) || implies(and.right(), b))) {
+      return true;
+    }
+    if (b instanceof OrFilter or && (implies(a, or.left()) || implies(a, or.right()))) {
+      return true;
+    }
+    if (a instanceof AndFilter || b instanceof OrFilter) {
+      return false;
+    }
+    return FilterFingerprint.canonicalWithLiterals(a)
+            .equals(FilterFingerprint.canonicalWithLiterals(b))
+        || atomImplies(a, b);
+  }
+
+  /**
+   * True if {@link FilterMatcher} evaluates {@code filter} exactly as the database would, so cached
+   * rows can be narrowed in memory. Rules out JSON literals, {@code LIKE} wildcards in {@code
+   * co}/{@code sw}/{@code ew} literals, ordering of values whose database order may differ from
+   * Java's (strings follow the collation) and custom comparison nodes. Also rules out {@code pr}
+   * and {@code null} literals, where the matcher follows RFC 7644 rather than the SQL: {@code IS
+   * NOT NULL} accepts empty strings, and {@code = NULL} matches nothing.
+   */
+  static boolean matchable(Filter filter) {
+    return switch (filter) {
+      case ParenFilter paren -> matchable(paren.inner());
+      case AndFilter and -> matchable(and.left()) && matchable(and.right());
+      case OrFilter or -> matchable(or.left()) && matchable(or.right());
+      case NotFilter not -> matchable(not.filter());
+      case InFilter in -> in.arrayValue().values().stream().allMatch(FilterSubsumption::isLiteral);
+      case ComparisonFilter comparison -> {
+        if (comparison.getClass() != ComparisonFilter.class
+            || !(comparison.value() instanceof ValueFilter value)
+            || !isLiteral(value)
+            || value.type() == ValueFilter.ValueType.JSON) {
+          yield false;
+        }
+        yield switch (comparison.operator()) {
+          case "gt", "ge", "lt", "le" -> ordered(FilterMatcher.literal(value));
+          case "co", "sw", "ew" -> {
+            var text = String.valueOf(value.value());
+            yield text.indexOf('%') < 0 && text.indexOf('_') < 0 && text.indexOf('\\') < 0;
+          }
+          default -> true;
+        };
+      }
+      default -> false;
+    };
+  }
+
+  private static boolean atomImplies(Filter a, Filter b) {
+    if (b instanceof PresentFilter present) {
+      return samePath(a, present.attribute()) && impliesNotNull(a);
+    }
+    if (!(b instanceof ComparisonFilter || b instanceof InFilter)) {
+      return false;
+    }
+    if (!plain(a) || !plain(b) || !samePath(a, attribute(b))) {
+      return false;
+    }
+    var narrower = literals(a);
+    if (narrower == null) {
+      return false;
+    }
+    if (b instanceof InFilter in) {
+      var set = literals(in);
+      return set != null
+          && (a instanceof InFilter || operator(a).equals("eq"))
+          && set.containsAll(narrower);
+    }
+
+    var comparison = (ComparisonFilter) b;
+    var bound = literal(comparison.value());
+    if (bound == null) {
+      return false;
+    }
+    var operator = operator(a);
+    return switch (comparison.operator()) {
+      case "eq" ->
+          (operator.equals("eq") || operator.equals("in"))
+              && narrower.stream().allMatch(bound::equals);
+      case "ne" ->
+          (operator.equals("eq") || operator.equals("in"))
+              && narrower.stream().noneMatch(bound::equals);
+      case "gt", "ge", "lt", "le" -> narrows(operator, narrower, comparison.operator(), bound);
+      case "sw", "ew", "co" -> contains(operator, narrower, comparison.operator(), bound);
+      default -> false;
+    };
+  }
+
+  // Every value satisfying "operator narrower" also satisfies "wide bound".
+  private static boolean narrows(
+      String operator, List<Object> narrower, String wide, Object bound) {
+    var lowerBound = wide.equals("gt") || wide.equals("ge");
+    for (var value : narrower) {
+      var order = compare(value, bound);
+      if (order == null) {
+        return false;
+      }
+      var exclusive = wide.equals("gt") || wide.equals("lt");
+      var ok =
+          switch (operator) {
+            // A point must lie inside the wide range.
+            case "eq", "in" ->
+                lowerBound
+                    ? (exclusive ? order > 0 : order >= 0)
+                    : exclusive ? order < 0 : order <= 0;
+            // A half-open range must lie inside a wide range pointing the same way.
+            case "gt" -> lowerBound && order >= 0;
+            case "ge" -> lowerBound && (exclusive ? order > 0 : order >= 0);
+            case "lt" -> !lowerBound && order <= 0;
+            case "le" -> !lowerBound && (exclusive ? order < 0 : order <= 0);
+            default -> false;
+          };
+      if (!ok) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Case-insensitive: a value matching the narrower pattern contains the wide one where required.
+  private static boolean contains(
+      String operator, List<Object> narrower, String wide, Object bound) {
+    if (!(bound instanceof String pattern) || narrower.size() != 1) {
+      return false;
+    }
+    if (!(narrower.getFirst() instanceof String text)) {
+      return false;
+    }
+    var value = text.toLowerCase(Locale.ROOT);
+    var needle = pattern.toLowerCase(Locale.ROOT);
+    return switch (wide) {
+      case "sw" -> (operator.equals("eq") || operator.equals("sw")) && value.startsWith(needle);
+      case "ew" -> (operator.equals("eq") || operator.equals("ew")) && value.endsWith(needle);
+      default ->
+          switch (operator) {
+            case "eq", "sw", "ew", "co" -> value.contains(needle);
+            default -> false;
+          };
+    };
+  }
+
+  // Any comparison with a non-null literal is unknown, never true, on a NULL column.
+  private static boolean impliesNotNull(Filter filter) {
+    return switch (filter) {
+      case PresentFilter present -> true;
+      case InFilter in -> in.arrayValue().values().stream().allMatch(FilterSubsumption::isLiteral);
+      case ComparisonFilter comparison ->
+          comparison.getClass() == ComparisonFilter.class && isLiteral(comparison.value());
+      default -> false;
+    };
+  }
+
+  private static boolean plain(Filter filter) {
+    return filter instanceof InFilter || filter.getClass() == ComparisonFilter.class;
+  }
+
+  private static Filter attribute(Filter filter) {
+    return switch (filter) {
+      case PresentFilter present -> present.attribute();
+      case InFilter in -> in.attribute();
+      case ComparisonFilter comparison -> comparison.attribute();
+      default -> null;
+    };
+  }
+
+  private static boolean samePath(Filter filter, Filter attribute) {
+    var own = attribute(filter);
+    return own != null && FilterMatcher.path(own).equals(FilterMatcher.path(attribute));
+  }
+
+  private static String operator(Filter filter) {
+    return filter instanceof ComparisonFilter comparison ? comparison.operator() : "in";
+  }
+
+  /** The normalized literals of a comparison or {@code in}, or null if any is not comparable. */
+  private static List<Object> literals(Filter filter) {
+    var values =
+        filter instanceof InFilter in
+            ? in.arrayValue().values()
+            : List.of(((ComparisonFilter) filter).value());
+    var literals = values.stream().map(FilterSubsumption::literal).toList();
+    return literals.contains(null) ? null : literals;
+  }
+
+  private static Object literal(Filter value) {
+    if (!isLiteral(value) || ((ValueFilter) value).type() == ValueFilter.ValueType.JSON) {
+      return null;
+    }
+    return FilterMatcher.literal(value);
+  }
+
+  private static boolean isLiteral(Filter value) {
+    return value instanceof ValueFilter valueFilter
+        && valueFilter.type() != ValueFilter.ValueType.NULL
+        && valueFilter.value() != null;
+  }
+
+  // Numbers and instants order the same in Java and Postgres; strings and UUIDs may not.
+  private static boolean ordered(Object literal) {
+    return literal instanceof BigDecimal || literal instanceof Instant;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Integer compare(Object value, Object bound) {
+    if (value.getClass() != bound.getClass() || !ordered(value)) {
+      return null;
+    }
+    return ((Comparable) value).compareTo(bound);
+  }
+
+  private static Filter unwrap(Filter filter) {
+    while (filter instanceof ParenFilter paren) {
+      filter = paren.inner();
+    }
+    return filter;
+  }
+}
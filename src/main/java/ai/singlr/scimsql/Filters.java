@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+final class Filters {
+
+  private Filters() {}
+
+  static int nodeCount(Filter filter) {
+    return switch (filter) {
+      case null -> 0;
+      case AndFilter and -> 1 + nodeCount(and.left()) + nodeCount(and.right());
+      case OrFilter or -> 1 + nodeCount(or.left()) + nodeCount(or.right());
+      case NotFilter not -> 1 + nodeCount(not.filter());
+      case ParenFilter paren -> 1 + nodeCount(paren.inner());
+      case PresentFilter present -> 1 + nodeCount(present.attribute());
+      case InFilter in -> 1 + nodeCount(in.attribute()) + nodeCount(in.arrayValue());
+      case ComparisonFilter comparison ->
+          1 + nodeCount(comparison.attribute()) + nodeCount(comparison.value());
+      case AttributeFilter attribute -> 1 + nodeCount(attribute.subAttribute());
+      case ArrayValueFilter array -> 1 + array.values().stream().mapToInt(Filters::nodeCount).sum();
+      default -> 1;
+    };
+  }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A filter flattened into parallel arrays in postfix order: one opcode per node, with indexes into
+ * an attribute table and a literal pool. Rendering and in-memory matching walk the arrays once,
+ * front to back, instead of chasing node references, which suits large filters that are rendered or
+ * matched often. Immutable and thread-safe.
+ *
+ * <p>{@link #render()} produces the clause and parameters {@link Filter#toClause()} would, and
+ * {@link #matches} follows {@link FilterMatcher}, short-circuiting {@code and} and {@code or} the
+ * same way. Filters with custom comparison nodes cannot be flattened.
+ */
+public final class FlatFilter {
+
+  private static final byte AND = 0;
+  private static final byte OR = 1;
+  private static final byte NOT = 2;
+  private static final byte PAREN = 3;
+  private static final byte PRESENT = 4;
+  private static final byte IN = 5;
+  // Comparisons: COMPARE + the operator's index in OPERATORS.
+  private static final byte COMPARE = 6;
+
+  private static final List<String> OPERATORS =
+      List.of("eq", "ne", "gt", "ge", "lt", "le", "co", "sw", "ew");
+  private static final String[] FORMATS = {
+    "%s = %s",
+    "%s != %s",
+    "%s > %s",
+    "%s >= %s",
+    "%s < %s",
+    "%s <= %s",
+    "LOWER(%s) LIKE '%%' || LOWER(%s) || '%%'",
+    "LOWER(%s) LIKE LOWER(%s) || '%%'",
+    "LOWER(%s) LIKE '%%' || LOWER(%s)"
+  };
+
+  // Three-valued results, as in FilterMatcher: unknown is a comparison with a missing attribute.
+  private static final byte FALSE = 0;
+  private static final byte TRUE = 1;
+  private static final byte UNKNOWN = 2;
+
+  // Per node, in postfix order.
+  private final byte[] ops;
+  private final int[] attributes;
+  private final int[] operands;
+  private final int[] lengths;
+  // The and/or whose left operand this node is, or -1.
+  private final int[] parents;
+  // SQL around each leaf: opening parentheses before it; closing ones and and/or after it.
+  private final String[] before;
+  private final String[] after;
+
+  // Attribute table.
+  private final String[] paths;
+  private final String[] columns;
+  private final String[] keyBases;
+
+  // Literal pool.
+  private final Object[] values;
+  private final ValueFilter.ValueType[] types;
+  private volatile Object[] matchLiterals;
+  // Written before matchLiterals is published.
+  private boolean literalErrors;
+
+  private final int inListThreshold;
+
+  private FlatFilter(Builder builder) {
+    var size = builder.size;
+    ops = Arrays.copyOf(builder.ops, size);
+    attributes = Arrays.copyOf(builder.attributes, size);
+    operands = Arrays.copyOf(builder.operands, size);
+    lengths = Arrays.copyOf(builder.lengths, size);
+    parents = Arrays.copyOf(builder.parents, size);
+    before = Arrays.copyOf(builder.before, size);
+    after = Arrays.copyOf(builder.after, size);
+    var attributeCount = builder.paths.size();
+    paths = new String[attributeCount];
+    columns = new String[attributeCount];
+    keyBases = new String[attributeCount];
+    builder.paths.forEach(
+        (path, index) -> {
+          paths[index] = path.toLowerCase(Locale.ROOT);
+          columns[index] = builder.columns[index];
+          keyBases[index] = path.replace(".", "_");
+        });
+    values = Arrays.copyOf(builder.values, builder.literalCount);
+    types = Arrays.copyOf(builder.types, builder.literalCount);
+    inListThreshold = builder.inListThreshold;
+  }
+
+  /**
+   * Flattens a parsed filter; column names and the {@code in} list threshold are taken from it.
+   *
+   * @throws IllegalArgumentException for custom comparison nodes or unsupported operators
+   */
+  public static FlatFilter of(Filter filter) {
+    var builder = new Builder(filter.context().inListThreshold());
+    builder.node(filter);
+    return new FlatFilter(builder);
+  }
+
+  /** The number of nodes, not counting attributes and literals. */
+  public int size() {
+    return ops.length;
+  }
+
+  /** The clause and parameters {@link Filter#toClause()} renders for the original filter. */
+  public SqlFragment render() {
+    var sql = new StringBuilder();
+    var params = new LinkedHashMap<String, Object>();
+    var counts = new int[columns.length];
+    for (var i = 0; i < ops.length; i++) {
+      var op = ops[i];
+      if (op < PRESENT) {
+        continue;
+      }
+      if (before[i] != null) {
+        sql.append(before[i]);
+      }
+      var attribute = attributes[i];
+      var column = columns[attribute];
+      if (op == PRESENT) {
+        sql.append(column).append(" IS NOT NULL");
+      } else if (op == IN) {
+        renderIn(sql, params, counts, i);
+      } else {
+        var literal = operands[i];
+        var param = values[literal];
+        var paramKey = bind(params, counts, attribute, param);
+        var type = types[literal];
+        paramKey = ValueFilter.castParam(type, paramKey);
+        var format =
+            op == COMPARE && type == ValueFilter.ValueType.JSON
+                ? "%s @> %s"
+                : FORMATS[op - COMPARE];
+        sql.append(format.formatted(column, paramKey));
+      }
+      sql.append(after[i]);
+    }
+    return new SqlFragment(sql.toString(), params);
+  }
+
+  private void renderIn(StringBuilder sql, Map<String, Object> params, int[] counts, int node) {
+    var attribute = attributes[node];
+    var start = operands[node];
+    var length = lengths[node];
+    sql.append(columns[attribute]);
+    if (length >= inListThreshold) {
+      var literals = Arrays.asList(values).subList(start, start + length);
+      var sqlType =
+          literals.contains(null)
+              ? null
+              : SqlArrays.elementType(
+                  Arrays.asList(types).subList(start, start + length), literals);
+      if (sqlType != null) {
+        var paramKey = bind(params, counts, attribute, SqlArrays.toArray(sqlType, literals));
+        sql.append(" IN (SELECT unnest(CAST(%s AS %s[])))".formatted(paramKey, sqlType));
+        return;
+      }
+    }
+    sql.append(" IN (");
+    for (var i = start; i < start + length; i++) {
+      if (i > start) {
+        sql.append(", ");
+      }
+      var paramKey = bind(params, counts, attribute, values[i]);
+      if (types[i] == ValueFilter.ValueType.UUID) {
+        sql.append("CAST(").append(paramKey).append(" AS UUID)");
+      } else {
+        sql.append(paramKey);
+      }
+    }
+    sql.append(')');
+  }
+
+  // Keys are numbered per attribute, as Context numbers them.
+  private String bind(Map<String, Object> params, int[] counts, int attribute, Object value) {
+    var key = keyBases[attribute] + ++counts[attribute];
+    params.put(key, value);
+    return ":" + key;
+  }
+
+  /** Whether {@code resource} matches, as {@link FilterMatcher#matches} decides. */
+  public boolean matches(Map<String, ?> resource) {
+    return evaluate(FilterMatcher.flatten(resource)) == TRUE;
+  }
+
+  private byte evaluate(Map<String, List<Object>> resource) {
+    var literals = matchLiterals();
+    var stack = new byte[ops.length];
+    var top = 0;
+    var i = 0;
+    while (i < ops.length) {
+      var op = ops[i];
+      byte result;
+      switch (op) {
+        case AND -> {
+          var right = stack[--top];
+          var left = stack[--top];
+          result =
+              left == FALSE || right == FALSE
+                  ? FALSE
+                  : left == TRUE && right == TRUE ? TRUE : UNKNOWN;
+        }
+        case OR -> {
+          var right = stack[--top];
+          var left = stack[--top];
+          result =
+              left == TRUE || right == TRUE
+                  ? TRUE
+                  : left == FALSE && right == FALSE ? FALSE : UNKNOWN;
+        }
+        case NOT -> {
+          var inner = stack[--top];
+          result = inner == UNKNOWN ? UNKNOWN : inner == TRUE ? FALSE : TRUE;
+        }
+        case PAREN -> result = stack[--top];
+        case PRESENT -> {
+          var actual = resource.get(paths[attributes[i]]);
+          result =
+              actual != null && (actual.isEmpty() || actual.stream().anyMatch(v -> !"".equals(v)))
+                  ? TRUE
+                  : FALSE;
+        }
+        case IN -> result = in(resource.get(paths[attributes[i]]), literals, i);
+        default -> result = compare(resource.get(paths[attributes[i]]), literals, i);
+      }
+      // A left operand that decides its and/or skips the right operand and the and/or itself.
+      while (parents[i] >= 0 && result == (ops[parents[i]] == AND ? FALSE : TRUE)) {
+        i = parents[i];
+      }
+      stack[top++] = result;
+      i++;
+    }
+    return stack[0];
+  }
+
+  private byte in(List<Object> actual, Object[] literals, int node) {
+    var start = operands[node];
+    var end = start + lengths[node];
+    if (literalErrors) {
+      for (var i = start; i < end; i++) {
+        literal(literals, i);
+      }
+    }
+    if (actual == null) {
+      return UNKNOWN;
+    }
+    for (var value : actual) {
+      for (var i = start; i < end; i++) {
+        if (value.equals(literals[i])) {
+          return TRUE;
+        }
+      }
+    }
+    return FALSE;
+  }
+
+  private byte compare(List<Object> actual, Object[] literals, int node) {
+    var operator = OPERATORS.get(ops[node] - COMPARE);
+    var index = operands[node];
+    if (types[index] == ValueFilter.ValueType.NULL) {
+      return switch (operator) {
+        case "eq" -> actual == null ? TRUE : FALSE;
+        case "ne" -> actual != null ? TRUE : FALSE;
+        default -> UNKNOWN;
+      };
+    }
+    var literal = literal(literals, index);
+    if (actual == null) {
+      return UNKNOWN;
+    }
+    for (var value : actual) {
+      if (FilterMatcher.compare(operator, value, literal)) {
+        return TRUE;
+      }
+    }
+    return FALSE;
+  }
+
+  private static Object literal(Object[] literals, int index) {
+    if (literals[index] instanceof LiteralError error) {
+      throw new IllegalArgumentException(error.message());
+    }
+    return literals[index];
+  }
+
+  // Normalized on first use, so flattening never fails on literals matching cannot handle.
+  private Object[] matchLiterals() {
+    var literals = matchLiterals;
+    if (literals == null) {
+      literals = new Object[values.length];
+      for (var i = 0; i < values.length; i++) {
+        try {
+          literals[i] = FilterMatcher.literal(new ValueFilter(values[i], types[i], null));
+        } catch (IllegalArgumentException e) {
+          literals[i] = new LiteralError(e.getMessage());
+          literalErrors = true;
+        }
+      }
+      matchLiterals = literals;
+    }
+    return literals;
+  }
+
+  private record LiteralError(String message) {}
+
+  private static final class Builder {
+    private final int inListThreshold;
+    private byte[] ops = new byte[16];
+    private int[] attributes = new int[16];
+    private int[] operands = new int[16];
+    private int[] lengths = new int[16];
+    private int[] parents = new int[16];
+    private String[] before = new String[16];
+    private String[] after = new String[16];
+    private int size;
+    private int lastLeaf = -1;
+    private final StringBuilder open = new StringBuilder();
+
+    private final Map<String, Integer> paths = new HashMap<>();
+    private String[] columns = new String[8];
+
+    private Object[] values = new Object[16];
+    private ValueFilter.ValueType[] types = new ValueFilter.ValueType[16];
+    private int literalCount;
+
+    Builder(int inListThreshold) {
+      this.inListThreshold = inListThreshold;
+    }
+
+    // Returns the index of the node's last instruction.
+    int node(Filter filter) {
+      return switch (filter) {
+        case AndFilter and -> binary(AND, and.left(), and.right(), " AND ");
+        case OrFilter or -> binary(OR, or.left(), or.right(), " OR ");
+        case NotFilter not -> wrap(NOT, not.filter(), "NOT (");
+        case ParenFilter paren -> wrap(PAREN, paren.inner(), "(");
+        case PresentFilter present -> leaf(PRESENT, attribute(present.attribute()), -1, 0);
+        case InFilter in -> {
+          var elements = in.arrayValue().values();
+          var start = literalCount;
+          elements.forEach(this::literal);
+          yield leaf(IN, attribute(in.attribute()), start, elements.size());
+        }
+        case ComparisonFilter comparison when comparison.getClass() == ComparisonFilter.class -> {
+          var operator = OPERATORS.indexOf(comparison.operator());
+          if (operator < 0) {
+            throw new IllegalArgumentException("Unsupported operator: " + comparison.operator());
+          }
+          var attribute = attribute(comparison.attribute());
+          yield leaf((byte) (COMPARE + operator), attribute, literal(comparison.value()), 0);
+        }
+        default ->
+            throw new IllegalArgumentException(
+                "Cannot flatten filter node: " + filter.getClass().getName());
+      };
+    }
+
+    private int binary(byte op, Filter left, Filter right, String separator) {
+      var leftEnd = node(left);
+      after[lastLeaf] += separator;
+      node(right);
+      var index = add(op, -1, -1, 0);
+      parents[leftEnd] = index;
+      return index;
+    }
+
+    private int wrap(byte op, Filter inner, String opening) {
+      open.append(opening);
+      node(inner);
+      after[lastLeaf] += ")";
+      return add(op, -1, -1, 0);
+    }
+
+    private int leaf(byte op, int attribute, int operand, int length) {
+      var index = add(op, attribute, operand, length);
+      before[index] = open.isEmpty() ? null : open.toString();
+      after[index] = "";
+      open.setLength(0);
+      lastLeaf = index;
+      return index;
+    }
+
+    private int add(byte op, int attribute, int operand, int length) {
+      if (size == ops.length) {
+        var capacity = size * 2;
+        ops = Arrays.copyOf(ops, capacity);
+        attributes = Arrays.copyOf(attributes, capacity);
+        operands = Arrays.copyOf(operands, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        before = Arrays.copyOf(before, capacity);
+        after = Arrays.copyOf(after, capacity);
+      }
+      ops[size] = op;
+      attributes[size] = attribute;
+      operands[size] = operand;
+      lengths[size] = length;
+      parents[size] = -1;
+      return size++;
+    }
+
+    private int attribute(Filter attribute) {
+      var path = attribute.toString();
+      var index = paths.get(path);
+      if (index == null) {
+        index = paths.size();
+        paths.put(path, index);
+        if (index == columns.length) {
+          columns = Arrays.copyOf(columns, index * 2);
+        }
+        columns[index] = Filter.camelToSnake(attribute.toClause());
+      }
+      return index;
+    }
+
+    private int literal(Filter value) {
+      if (!(value instanceof ValueFilter valueFilter)) {
+        throw new IllegalArgumentException("Not a literal: " + value);
+      }
+      if (literalCount == values.length) {
+        values = Arrays.copyOf(values, literalCount * 2);
+        types = Arrays.copyOf(types, literalCount * 2);
+      }
+      values[literalCount] = valueFilter.value();
+      types[literalCount] = valueFilter.type();
+      return literalCount++;
+    }
+  }
+}
@@ -5,12 +5,20 @@
 
 package ai.singlr.scimsql;
 
+import java.util.ArrayList;
+
 public record InFilter(Filter attribute, ArrayValueFilter arrayValue, Context context)
     implements Filter {
 
   @Override
   public String toClause() {
     var key = Filter.camelToSnake(attribute.toClause());
+    if (arrayValue.values().size() >= context.inListThreshold()) {
+      var clause = unnestClause(key);
+      if (clause != null) {
+        return clause;
+      }
+    }
     var inClause = context.processArray(attribute, arrayValue.values(), this::paramKey);
     return key + " IN (" + inClause + ")";
   }
@@ -18,4 +26,26 @@ public record InFilter(Filter attribute, ArrayValueFilter arrayValue, Context co
   public String paramKey(String indexedKey) {
     return ":" + indexedKey;
   }
+
+  // One typed array parameter instead of one per element: a single bind however long the list,
+  // and a hashed semi-join instead of a huge OR. Null when the elements have no common SQL type.
+  private String unnestClause(String key) {
+    var types = new ArrayList<ValueFilter.ValueType>();
+    var literals = new ArrayList<Object>();
+    for (var value : arrayValue.values()) {
+      if (!(value instanceof ValueFilter valueFilter) || valueFilter.value() == null) {
+        return null;
+      }
+      types.add(valueFilter.type());
+      literals.add(valueFilter.value());
+    }
+    var sqlType = SqlArrays.elementType(types, literals);
+    if (sqlType == null) {
+      return null;
+    }
+
+    var array = new ValueFilter(SqlArrays.toArray(sqlType, literals), types.getFirst(), context);
+    var paramKey = context.process(attribute, array, this::paramKey);
+    return "%s IN (SELECT unnest(CAST(%s AS %s[])))".formatted(key, paramKey, sqlType);
+  }
 }
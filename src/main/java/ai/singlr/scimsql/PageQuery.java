@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Map;
+
+/**
+ * The compiled WHERE, ORDER BY and LIMIT parts of a SCIM list request. {@code filter} is the SCIM
+ * filter alone; {@code where} combines it with the keyset predicate. Either is null when empty.
+ * {@code nullsFollow} is set when the keyset covers non-null sort values only, so the rows whose
+ * sort value is NULL still follow; see {@link #shortPageToken()}.
+ */
+public record PageQuery(
+    SqlFragment filter,
+    SqlFragment where,
+    String orderBy,
+    int limit,
+    int offset,
+    String sortBy,
+    SortOrder sortOrder,
+    boolean nullsFollow) {
+
+  public String toSql() {
+    var builder = new StringBuilder();
+    if (where != null) {
+      builder.append("WHERE ").append(where.sql()).append(' ');
+    }
+    builder.append("ORDER BY ").append(orderBy).append(" LIMIT ").append(limit);
+    if (offset > 0) {
+      builder.append(" OFFSET ").append(offset);
+    }
+    return builder.toString();
+  }
+
+  public Map<String, Object> params() {
+    return where == null ? Map.of() : where.params();
+  }
+
+  /** Builds the companion {@code totalResults} query, which ignores the keyset predicate. */
+  public SqlFragment countQuery(String from, CountStrategy strategy) {
+    return strategy.countQuery(from, filter);
+  }
+
+  /** Builds the continuation token for the page that follows a row with the given keys. */
+  public String nextPageToken(Object sortValue, Object id) {
+    return new PageToken(sortBy, sortOrder, sortValue, id).encode();
+  }
+
+  /**
+   * Builds the continuation token for a page that returned fewer than {@code limit} rows, or
+   * returns null when the listing is complete. A keyset page over non-null sort values is one index
+   * range that ends at the last non-null value, so the rows whose sort value is NULL follow on
+   * pages of their own.
+   */
+  public String shortPageToken() {
+    return nullsFollow ? new PageToken(sortBy, sortOrder, null, null).encode() : null;
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Objects;
+
+/**
+ * The sorting and paging parameters of a SCIM list request. {@code startIndex} is 1-based as in RFC
+ * 7644; {@code pageToken} is the continuation token handed out with the previous page.
+ */
+public record PageRequest(
+    String sortBy,
+    SortOrder sortOrder,
+    int startIndex,
+    int count,
+    String pageToken,
+    String tiebreaker) {
+
+  public static final String DEFAULT_TIEBREAKER = "id";
+
+  public PageRequest {
+    sortOrder = Objects.requireNonNullElse(sortOrder, SortOrder.ASCENDING);
+    // RFC 7644 3.4.2.4: values below 1 are interpreted as 1, negative counts as 0.
+    startIndex = Math.max(startIndex, 1);
+    count = Math.max(count, 0);
+    tiebreaker = Objects.requireNonNullElse(tiebreaker, DEFAULT_TIEBREAKER);
+  }
+
+  public PageRequest(
+      String sortBy, SortOrder sortOrder, int startIndex, int count, String pageToken) {
+    this(sortBy, sortOrder, startIndex, count, pageToken, DEFAULT_TIEBREAKER);
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination. It carries the sort key and tiebreaker of the
+ * last row of a page, plus the sort it was issued for so it cannot be replayed against another. A
+ * token with a {@code sortBy} but neither {@code sortValue} nor {@code id} starts the run of rows
+ * whose sort value is NULL.
+ */
+public record PageToken(String sortBy, SortOrder sortOrder, Object sortValue, Object id) {
+
+  private static final char VERSION = '1';
+
+  public PageToken {
+    sortOrder = Objects.requireNonNullElse(sortOrder, SortOrder.ASCENDING);
+    sortValue = normalize(sortValue);
+    if (sortBy == null || sortValue != null) {
+      Objects.requireNonNull(id, "id");
+    }
+    id = normalize(id);
+  }
+
+  public String encode() {
+    var builder = new StringBuilder().append(VERSION);
+    appendField(builder, sortBy == null ? null : 'S', sortBy);
+    appendField(builder, 'S', sortOrder == SortOrder.ASCENDING ? "a" : "d");
+    appendValue(builder, sortValue);
+    appendValue(builder, id);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PageToken decode(String token) {
+    try {
+      var payload =
+          new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).toCharArray();
+      if (payload.length == 0 || payload[0] != VERSION) {
+        throw new IllegalArgumentException("Unsupported page token version");
+      }
+      var reader = new Reader(payload);
+      var sortBy = (String) reader.next();
+      var sortOrder = "d".equals(reader.next()) ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+      var sortValue = reader.next();
+      var id = reader.next();
+      if (!reader.done()) {
+        throw new IllegalArgumentException("Trailing data in page token");
+      }
+      return new PageToken(sortBy, sortOrder, sortValue, id);
+    } catch (IllegalArgumentException
+        | ClassCastException
+        | IndexOutOfBoundsException
+        | DateTimeException e) {
+      throw new IllegalArgumentException("Invalid page token", e);
+    }
+  }
+
+  ValueFilter sortValueFilter(Context context) {
+    return toValueFilter(sortValue, context);
+  }
+
+  ValueFilter idFilter(Context context) {
+    return toValueFilter(id, context);
+  }
+
+  private static ValueFilter toValueFilter(Object value, Context context) {
+    return switch (value) {
+      case null -> new ValueFilter("null", ValueFilter.ValueType.NULL, context);
+      case UUID uuid -> new ValueFilter(uuid.toString(), ValueFilter.ValueType.UUID, context);
+      case Instant instant ->
+          new ValueFilter(instant.toString(), ValueFilter.ValueType.TIMESTAMP, context);
+      case Boolean bool -> new ValueFilter(bool, ValueFilter.ValueType.BOOLEAN, context);
+      case Number number -> new ValueFilter(number, ValueFilter.ValueType.NUMBER, context);
+      default -> new ValueFilter(value, context);
+    };
+  }
+
+  private static Object normalize(Object value) {
+    return switch (value) {
+      case null -> null;
+      case Integer i -> i.longValue();
+      case Short s -> s.longValue();
+      case Float f -> f.doubleValue();
+      case OffsetDateTime odt -> odt.toInstant();
+      case ZonedDateTime zdt -> zdt.toInstant();
+      case String s -> s;
+      case Long l -> l;
+      case Double d -> d;
+      case BigDecimal bd -> bd;
+      case Boolean b -> b;
+      case UUID uuid -> uuid;
+      case Instant instant -> instant;
+      default ->
+          throw new IllegalArgumentException(
+              "Unsupported page token value type: " + value.getClass().getName());
+    };
+  }
+
+  private static void appendValue(StringBuilder builder, Object value) {
+    switch (value) {
+      case null -> appendField(builder, null, null);
+      case String s -> appendField(builder, 'S', s);
+      case Long l -> appendField(builder, 'L', l.toString());
+      case Double d -> appendField(builder, 'D', d.toString());
+      case BigDecimal bd -> appendField(builder, 'N', bd.toString());
+      case Boolean b -> appendField(builder, 'B', b.toString());
+      case UUID uuid -> appendField(builder, 'U', uuid.toString());
+      case Instant instant -> appendField(builder, 'T', instant.toString());
+      default -> throw new IllegalStateException("Unexpected value: " + value);
+    }
+  }
+
+  // Each field is "<tag><length>:<text>", or a lone 'Z' for null, so no escaping is needed.
+  private static void appendField(StringBuilder builder, Character tag, String text) {
+    if (tag == null) {
+      builder.append('Z');
+      return;
+    }
+    builder.append(tag).append(text.length()).append(':').append(text);
+  }
+
+  private static final class Reader {
+    private final char[] payload;
+    private int position = 1;
+
+    Reader(char[] payload) {
+      this.payload = payload;
+    }
+
+    Object next() {
+      var tag = payload[position++];
+      if (tag == 'Z') {
+        return null;
+      }
+      var colon = position;
+      while (payload[colon] != ':') {
+        colon++;
+      }
+      var length = Integer.parseInt(new String(payload, position, colon - position));
+      var text = new String(payload, colon + 1, length);
+      position = colon + 1 + length;
+
+      return switch (tag) {
+        case 'S' -> text;
+        case 'L' -> Long.parseLong(text);
+        case 'D' -> Double.parseDouble(text);
+        case 'N' -> new BigDecimal(text);
+        case 'B' -> Boolean.parseBoolean(text);
+        case 'U' -> UUID.fromString(text);
+        case 'T' -> Instant.parse(text);
+        default -> throw new IllegalArgumentException("Unknown field tag: " + tag);
+      };
+    }
+
+    boolean done() {
+      return position == payload.length;
+    }
+  }
+}
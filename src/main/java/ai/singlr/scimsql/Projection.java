@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.List;
+
+/** The columns a SCIM list or get request actually needs, in SELECT order. */
+public record Projection(List<String> columns) {
+
+  public Projection {
+    columns = List.copyOf(columns);
+  }
+
+  public String toSql() {
+    return String.join(", ", columns);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import io.r2dbc.spi.Statement;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Binds a {@link BoundFilter} onto an R2DBC {@link Statement} created from {@link
+ * CompiledFilter#positionalClause}. Values are converted from their {@link ValueFilter.ValueType}
+ * to the Java types drivers map natively, so no placeholder rewriting happens per request:
+ *
+ * <pre>{@code
+ * var statement = connection.createStatement(
+ *     "SELECT * FROM users t WHERE " + compiled.positionalClause("t", 1));
+ * R2dbcBinder.bind(statement, compiled.bind("t"), 1).execute();
+ * }</pre>
+ *
+ * <p>Values rebound to null are bound with the Java type of their parameter's {@link
+ * ValueFilter.ValueType}: UUIDs as {@code UUID}, timestamps as {@code OffsetDateTime} and the rest
+ * as {@code String}. Numeric and boolean literals from the grammar currently carry the {@code
+ * STRING} type, so a number or boolean rebound to null goes out as a varchar null. A {@code null}
+ * literal has no type to bind with, so {@link CompiledFilter#positionalClause} renders it as {@code
+ * NULL}; it takes no placeholder and any value rebound to it is ignored.
+ *
+ * <p>Requires {@code io.r2dbc:r2dbc-spi} on the class path; it is an optional dependency.
+ */
+public final class R2dbcBinder {
+
+  private R2dbcBinder() {}
+
+  /**
+   * Binds every parameter of {@code filter} in order, the first one to placeholder {@code
+   * $firstIndex}, and returns the statement.
+   */
+  public static Statement bind(Statement statement, BoundFilter filter, int firstIndex) {
+    if (firstIndex < 1) {
+      throw new IllegalArgumentException("First parameter index must be positive: " + firstIndex);
+    }
+    var index = firstIndex - 1;
+    for (var i = 0; i < filter.size(); i++) {
+      var type = filter.type(i);
+      if (type == ValueFilter.ValueType.NULL) {
+        continue;
+      }
+      var value = toR2dbc(type, filter.value(i));
+      if (value == null) {
+        statement.bindNull(index++, javaType(type));
+      } else {
+        statement.bind(index++, value);
+      }
+    }
+    return statement;
+  }
+
+  static Object toR2dbc(ValueFilter.ValueType type, Object value) {
+    if (value == null) {
+      return null;
+    }
+    return switch (type) {
+      case UUID -> value instanceof String s ? UUID.fromString(s) : value;
+      case TIMESTAMP -> value instanceof String s ? OffsetDateTime.parse(s) : value;
+      // Bound as text; the clause already casts it to jsonb.
+      case JSON -> value.toString();
+      default -> value;
+    };
+  }
+
+  static Class<?> javaType(ValueFilter.ValueType type) {
+    return switch (type) {
+      case UUID -> UUID.class;
+      case TIMESTAMP -> OffsetDateTime.class;
+      case BOOLEAN -> Boolean.class;
+      case NUMBER -> Long.class;
+      case STRING, JSON -> String.class;
+      case NULL -> throw new IllegalArgumentException("Null literals are not bound");
+    };
+  }
+}
@@ -5,39 +5,374 @@
 
 package ai.singlr.scimsql;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
-import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.misc.Interval;
 
 public class ScimEngine {
 
+  private final ScimEngineListener listener;
+  private final int inListThreshold;
+
+  public ScimEngine() {
+    this(ScimEngineListener.NOOP);
+  }
+
+  public ScimEngine(ScimEngineListener listener) {
+    this(listener, Context.DEFAULT_IN_LIST_THRESHOLD);
+  }
+
+  /**
+   * @param inListThreshold size from which an {@code in} list is rendered as {@code IN (SELECT
+   *     unnest(:array))} with one typed array parameter, see {@link Context#Context(int)}
+   */
+  public ScimEngine(ScimEngineListener listener, int inListThreshold) {
+    this.listener = Objects.requireNonNull(listener);
+    if (inListThreshold < 1) {
+      throw new IllegalArgumentException("In-list threshold must be positive: " + inListThreshold);
+    }
+    this.inListThreshold = inListThreshold;
+  }
+
   public Filter parseFilter(
       String filterExpression,
       String prefix,
       Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    return evaluate(filterExpression, evaluator(prefix, compareFilterBuilder));
+  }
+
+  /**
+   * Parses a filter for in-memory use, e.g. with {@link FilterIndex}, sharing nodes with every
+   * filter parsed through the same {@code interner}. The result cannot be rendered; see {@link
+   * FilterInterner}.
+   */
+  public Filter parseFilter(String filterExpression, FilterInterner interner) {
+    return evaluate(filterExpression, new ScimEvaluator("", null, interner));
+  }
+
+  /**
+   * Parses and renders a filter once into an immutable {@link CompiledFilter}. Unlike the tree
+   * returned by {@link #parseFilter}, the result can be cached and bound concurrently with any
+   * table prefix and any values of the same shape.
+   */
+  public CompiledFilter compileFilter(
+      String filterExpression, Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    return CompiledFilter.compile(
+        evaluator -> evaluate(filterExpression, evaluator),
+        compareFilterBuilder,
+        new Context(inListThreshold));
+  }
+
+  /**
+   * Decodes a filter written by {@link FilterCodec}, reading one record at the buffer's position
+   * and advancing past it. Equivalent to {@link #parseFilter(String, String, Function)} on the
+   * original expression, without involving the parser.
+   */
+  public Filter decodeFilter(
+      ByteBuffer encoded,
+      String prefix,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    return FilterCodec.decode(encoded, evaluator(prefix, compareFilterBuilder));
+  }
+
+  /**
+   * Decodes a filter written by {@link FilterCodec} into a {@link CompiledFilter}, as {@link
+   * #compileFilter} would have compiled the original expression.
+   */
+  public CompiledFilter decodeCompiled(
+      ByteBuffer encoded, Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    return CompiledFilter.compile(
+        evaluator -> FilterCodec.decode(encoded, evaluator),
+        compareFilterBuilder,
+        new Context(inListThreshold));
+  }
+
+  /**
+   * Renders a parsed filter into its clause and parameters. Equivalent to calling {@link
+   * Filter#toClause()} and reading {@link Context#indexedParams()}, but reported to the listener
+   * and to JFR as the {@link ScimEngineListener.Phase#RENDER RENDER} phase.
+   */
+  public SqlFragment render(Filter filter) {
+    var event = new ScimRenderEvent();
+    if (listener == ScimEngineListener.NOOP && !event.isEnabled()) {
+      return new SqlFragment(filter.toClause(), filter.context().indexedParams());
+    }
+
+    event.begin();
+    var start = System.nanoTime();
+    var fragment = new SqlFragment(filter.toClause(), filter.context().indexedParams());
+    listener.onPhase(ScimEngineListener.Phase.RENDER, System.nanoTime() - start);
+    if (event.shouldCommit()) {
+      event.nodeCount = Filters.nodeCount(filter);
+      event.paramCount = fragment.params().size();
+      event.clauseLength = fragment.sql().length();
+      event.commit();
+    }
+    return fragment;
+  }
+
+  /**
+   * Compiles a SCIM list request into keyset-paginated SQL. The filter (which may be null) is
+   * combined with a {@code (sort_col, tiebreaker) > (:k1, :k2)} predicate taken from the request's
+   * page token, so every page costs the same as the first. Without a token, a {@code startIndex}
+   * greater than 1 falls back to OFFSET.
+   */
+  public PageQuery parsePage(
+      String filterExpression,
+      String prefix,
+      PageRequest request,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    var evaluator = evaluator(prefix, compareFilterBuilder);
+    Filter filter = null;
+    if (filterExpression != null && !filterExpression.isBlank()) {
+      filter = evaluate(filterExpression, evaluator);
+    }
+    var sortAttribute =
+        request.sortBy() == null ? null : parseAttribute(evaluator, request.sortBy());
+    var tiebreaker = parseAttribute(evaluator, request.tiebreaker());
+
+    var order = request.sortOrder();
+    var tiebreakerColumn = Filter.camelToSnake(tiebreaker.toClause());
+    var sortColumn = sortAttribute == null ? null : Filter.camelToSnake(sortAttribute.toClause());
+    // NULLS LAST in both directions keeps the NULL run at the end of every listing. PostgreSQL
+    // puts NULLs first in a backward scan, so descending pages need their own index.
+    var orderBy =
+        sortColumn == null
+            ? "%s %s".formatted(tiebreakerColumn, order.sql())
+            : "%s %s NULLS LAST, %s %s"
+                .formatted(sortColumn, order.sql(), tiebreakerColumn, order.sql());
+
+    var filterFragment = filter == null ? null : render(filter);
+    var clause = filterFragment == null ? null : filterFragment.sql();
+    var offset = request.startIndex() - 1;
+    var nullsFollow = false;
+    if (request.pageToken() != null) {
+      var token = PageToken.decode(request.pageToken());
+      if (!Objects.equals(token.sortBy(), request.sortBy()) || token.sortOrder() != order) {
+        throw new IllegalArgumentException("Page token does not match sortBy/sortOrder");
+      }
+      var keyset = keysetClause(evaluator.context(), sortAttribute, tiebreaker, order, token);
+      clause = clause == null ? keyset : "(%s) AND %s".formatted(clause, keyset);
+      offset = 0;
+      nullsFollow = sortAttribute != null && token.sortValue() != null;
+    }
+
+    var where =
+        clause == null || request.pageToken() == null
+            ? filterFragment
+            : new SqlFragment(clause, evaluator.context().indexedParams());
+    return new PageQuery(
+        filterFragment,
+        where,
+        orderBy,
+        request.count(),
+        offset,
+        request.sortBy(),
+        order,
+        nullsFollow);
+  }
+
+  /**
+   * Compiles the SCIM {@code attributes}/{@code excludedAttributes} parameters into a column list
+   * using the same attribute-to-column mapping as filters. {@code availableAttributes} lists every
+   * attribute the resource exposes; requested names outside it are ignored and a sub-attribute
+   * request selects its parent column. The sort and tiebreaker columns of {@code request} (which
+   * may be null) are always included so ordering and page tokens keep working.
+   */
+  public Projection parseProjection(
+      Collection<String> attributes,
+      Collection<String> excludedAttributes,
+      List<String> availableAttributes,
+      String prefix,
+      PageRequest request) {
+    var requested = lowerCase(attributes);
+    var excluded = lowerCase(excludedAttributes);
+    var required = new LinkedHashSet<String>();
+    if (request != null && request.sortBy() != null) {
+      required.add(request.sortBy());
+    }
+    required.add(request == null ? PageRequest.DEFAULT_TIEBREAKER : request.tiebreaker());
+    var requiredKeys = lowerCase(required);
+
+    var evaluator = evaluator(prefix, null);
+    var columns = new LinkedHashSet<String>();
+    for (var attribute : availableAttributes) {
+      var key = attribute.toLowerCase(Locale.ROOT);
+      var include =
+          requiredKeys.contains(key)
+              || (requested.isEmpty()
+                  ? !excluded.contains(key)
+                  : requested.stream().anyMatch(r -> r.equals(key) || r.startsWith(key + ".")));
+      if (include) {
+        columns.add(Filter.camelToSnake(parseAttribute(evaluator, attribute).toClause()));
+      }
+    }
+    for (var attribute : required) {
+      columns.add(Filter.camelToSnake(parseAttribute(evaluator, attribute).toClause()));
+    }
+    return new Projection(List.copyOf(columns));
+  }
+
+  private ScimEvaluator evaluator(
+      String prefix, Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
+    return new ScimEvaluator(prefix, compareFilterBuilder, new Context(inListThreshold));
+  }
+
+  private static Set<String> lowerCase(Collection<String> attributes) {
+    if (attributes == null) {
+      return Set.of();
+    }
+    return attributes.stream()
+        .map(a -> a.trim().toLowerCase(Locale.ROOT))
+        .filter(a -> !a.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  private static String keysetClause(
+      Context context, Filter sortAttribute, Filter tiebreaker, SortOrder order, PageToken token) {
+    var op = order.keysetOperator();
+    var tiebreakerColumn = Filter.camelToSnake(tiebreaker.toClause());
+    if (sortAttribute == null) {
+      var idParam = bindKey(context, tiebreaker, token.idFilter(context));
+      return "%s %s %s".formatted(tiebreakerColumn, op, idParam);
+    }
+
+    // Sort columns may be nullable; ORDER BY places NULLs last, so they form a trailing run
+    // ordered by the tiebreaker alone. Each phase is a single range of an index on (sort, id);
+    // PageQuery#shortPageToken moves from the non-null range to the NULL run.
+    var sortColumn = Filter.camelToSnake(sortAttribute.toClause());
+    if (token.sortValue() == null) {
+      if (token.id() == null) {
+        return "%s IS NULL".formatted(sortColumn);
+      }
+      var idParam = bindKey(context, tiebreaker, token.idFilter(context));
+      return "(%s IS NULL AND %s %s %s)".formatted(sortColumn, tiebreakerColumn, op, idParam);
+    }
+    var sortParam = bindKey(context, sortAttribute, token.sortValueFilter(context));
+    var idParam = bindKey(context, tiebreaker, token.idFilter(context));
+    return "(%s, %s) %s (%s, %s)".formatted(sortColumn, tiebreakerColumn, op, sortParam, idParam);
+  }
+
+  private static String bindKey(Context context, Filter attribute, ValueFilter value) {
+    return value.castParam(context.process(attribute, value, k -> ":" + k));
+  }
+
+  private static Filter parseAttribute(ScimEvaluator evaluator, String attributePath) {
+    var parser = parse(attributePath);
+    var tree = parser.attrPath();
+    requireEnd(parser);
+    return evaluator.visitAttrPath(tree);
+  }
+
+  private Filter evaluate(String expression, ScimEvaluator evaluator) {
+    var event = new ScimParseEvent();
+    if (listener == ScimEngineListener.NOOP && !event.isEnabled()) {
+      FilterPrecheck.check(expression);
+      return build(expression, evaluator);
+    }
+
+    event.begin();
+    event.inputLength = expression == null ? 0 : expression.length();
     try {
-      CharStream input = CharStreams.fromString(filterExpression);
-      ScimLexer lexer = new ScimLexer(input);
-      ScimParser parser = getScimParser(lexer);
+      var start = System.nanoTime();
+      FilterPrecheck.check(expression);
+      var tokens = tokens(expression);
+      tokens.fill();
+      var lexed = System.nanoTime();
+      listener.onPhase(ScimEngineListener.Phase.LEX, lexed - start);
+      event.tokenCount = tokens.size();
+      event.lexDuration = lexed - start;
+      var parser = getScimParser(tokens);
+      var tree = parser.query();
+      requireEnd(parser);
+      var parsed = System.nanoTime();
+      var filter = evaluator.visit(tree);
+      var evaluated = System.nanoTime();
 
-      ScimParser.QueryContext tree = parser.query();
-      return new ScimEvaluator(prefix, compareFilterBuilder).visit(tree);
-    } catch (ParseCancellationException e) {
-      throw new IllegalArgumentException("Failed to parse filter: " + e.getMessage());
+      var nodeCount = Filters.nodeCount(filter);
+      var fingerprint = FilterFingerprint.of(filter).fingerprint64();
+      listener.onPhase(ScimEngineListener.Phase.PARSE, parsed - lexed);
+      listener.onPhase(ScimEngineListener.Phase.EVALUATE, evaluated - parsed);
+      listener.onParsed(fingerprint, expression.length(), nodeCount);
+      if (event.shouldCommit()) {
+        event.nodeCount = nodeCount;
+        event.fingerprint = fingerprint;
+        event.parseDuration = parsed - lexed;
+        event.evaluateDuration = evaluated - parsed;
+        event.succeeded = true;
+        event.commit();
+      }
+      return filter;
+    } catch (ScimFilterException e) {
+      listener.onRejected(event.inputLength);
+      if (event.shouldCommit()) {
+        event.commit();
+      }
+      throw e;
     }
   }
 
-  private static ScimParser getScimParser(ScimLexer lexer) {
-    CommonTokenStream tokens = new CommonTokenStream(lexer);
-    ScimParser parser = new ScimParser(tokens);
+  /**
+   * Parses and builds the filter in one pass: the parser keeps no tree and pulls tokens from the
+   * lexer as it goes, and a {@link FilterListener} builds each node as its rule exits. The
+   * instrumented path above builds the tree instead, so lexing, parsing and evaluation can be timed
+   * separately.
+   */
+  private static Filter build(String expression, ScimEvaluator evaluator) {
+    var parser = getScimParser(new UnbufferedTokenStream<>(lexer(expression)));
+    parser.setBuildParseTree(false);
+    var builder = new FilterListener(evaluator);
+    parser.addParseListener(builder);
+    parser.query();
+    requireEnd(parser);
+    return builder.result();
+  }
 
-    parser.removeErrorListeners();
-    parser.addErrorListener(
+  // query has no EOF, so the parser stops at the first token that cannot continue the filter.
+  private static void requireEnd(Parser parser) {
+    var token = parser.getCurrentToken();
+    if (token.getType() != Token.EOF) {
+      throw new ScimFilterException(
+          token.getStartIndex(),
+          token.getText(),
+          () -> List.of(parser.getVocabulary().getDisplayName(Token.EOF)));
+    }
+  }
+
+  private static ScimParser parse(String expression) {
+    return getScimParser(tokens(expression));
+  }
+
+  private static CommonTokenStream tokens(String expression) {
+    return new CommonTokenStream(lexer(expression));
+  }
+
+  private static ScimLexer lexer(String expression) {
+    CharStream input = CharStreams.fromString(expression);
+    var lexer = new ScimLexer(input);
+    // Characters no token matches; the precheck catches most of them before the lexer runs.
+    lexer.removeErrorListeners();
+    lexer.addErrorListener(
         new BaseErrorListener() {
           @Override
           public void syntaxError(
@@ -47,10 +382,67 @@ public class ScimEngine {
               int charPositionInLine,
               String msg,
               RecognitionException e) {
-            throw new ParseCancellationException(
-                "Invalid filter syntax at position " + charPositionInLine + ": " + msg);
+            var start = lexer._tokenStartCharIndex;
+            var end = Math.min(input.index(), input.size() - 1);
+            throw new ScimFilterException(
+                start, end < start ? null : input.getText(Interval.of(start, end)), null);
           }
         });
+    return lexer;
+  }
+
+  private static ScimParser getScimParser(TokenStream tokens) {
+    ScimParser parser = new ScimParser(tokens);
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new FailFastStrategy());
     return parser;
   }
+
+  /**
+   * Fails on the first syntax error with a {@link ScimFilterException}, skipping the recovery and
+   * message formatting of {@link DefaultErrorStrategy}. Expected tokens are computed only if read.
+   */
+  private static final class FailFastStrategy extends DefaultErrorStrategy {
+
+    @Override
+    public void reportError(Parser recognizer, RecognitionException e) {
+      throw error(recognizer, e.getOffendingToken(), e.getOffendingState(), e.getCtx());
+    }
+
+    @Override
+    public void recover(Parser recognizer, RecognitionException e) {
+      throw error(recognizer, e.getOffendingToken(), e.getOffendingState(), e.getCtx());
+    }
+
+    @Override
+    public Token recoverInline(Parser recognizer) {
+      throw error(
+          recognizer, recognizer.getCurrentToken(), recognizer.getState(), recognizer.getContext());
+    }
+
+    @Override
+    public void sync(Parser recognizer) {}
+
+    private static ScimFilterException error(
+        Parser parser, Token token, int state, RuleContext context) {
+      var atn = parser.getATN();
+      var vocabulary = parser.getVocabulary();
+      var eof = token == null || token.getType() == Token.EOF;
+      return new ScimFilterException(
+          eof
+              ? parser.getInputStream().getTokenSource().getInputStream().size()
+              : token.getStartIndex(),
+          eof ? null : token.getText(),
+          () -> {
+            var names = new ArrayList<String>();
+            if (state < 0) {
+              return names;
+            }
+            for (var type : atn.getExpectedTokens(state, context).toList()) {
+              names.add(vocabulary.getDisplayName(type));
+            }
+            return names;
+          });
+    }
+  }
 }
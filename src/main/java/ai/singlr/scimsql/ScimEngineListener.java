@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+/**
+ * Receives timings and counts from a {@link ScimEngine}, e.g. to bridge into a metrics system.
+ * Callbacks run on the calling thread and must be cheap and thread-safe. When the engine uses
+ * {@link #NOOP} and no JFR recording is active, no timestamps are taken at all.
+ */
+public interface ScimEngineListener {
+
+  ScimEngineListener NOOP = new ScimEngineListener() {};
+
+  enum Phase {
+    /** Tokenizing the filter expression. */
+    LEX,
+    /** ANTLR prediction and parse-tree construction. */
+    PARSE,
+    /** Building the {@link Filter} tree with {@link ScimEvaluator}. */
+    EVALUATE,
+    /** Rendering the SQL clause and collecting its parameters. */
+    RENDER
+  }
+
+  /** Called once per completed phase. */
+  default void onPhase(Phase phase, long durationNanos) {}
+
+  /**
+   * Called for every successfully parsed filter with its {@link FilterFingerprint#fingerprint64()
+   * shape fingerprint}, which ignores literal values.
+   */
+  default void onParsed(long fingerprint, int inputLength, int nodeCount) {}
+
+  /** Called for every filter rejected with a syntax error. */
+  default void onRejected(int inputLength) {}
+}
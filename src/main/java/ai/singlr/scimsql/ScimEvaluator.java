@@ -5,6 +5,7 @@
 
 package ai.singlr.scimsql;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -15,51 +16,77 @@ public class ScimEvaluator extends ScimBaseVisitor<Filter> {
   private static final Function<ComparisonFilter, ComparisonFilter> DEFAULT_COMPARE_FILTER_BUILDER =
       filter -> filter;
 
+  // Postgres numeric: up to 131072 digits before the decimal point and 16383 after.
+  private static final int NUMERIC_INTEGER_DIGITS = 131_072;
+  private static final int NUMERIC_FRACTION_DIGITS = 16_383;
+
   private final String prefix;
   private final Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder;
   private final Context context;
+  private final FilterInterner interner;
 
   public ScimEvaluator(
       String prefix, Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder) {
-    this.prefix = Objects.requireNonNull(prefix);
+    this(prefix, compareFilterBuilder, new Context());
+  }
+
+  ScimEvaluator(
+      String prefix,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder,
+      Context context) {
+    this(prefix, compareFilterBuilder, context, null);
+  }
+
+  /** Builds filters whose nodes are shared through {@code interner}, see {@link FilterInterner}. */
+  public ScimEvaluator(
+      String prefix,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder,
+      FilterInterner interner) {
+    this(prefix, compareFilterBuilder, interner.context(), interner);
+  }
+
+  private ScimEvaluator(
+      String prefix,
+      Function<ComparisonFilter, ComparisonFilter> compareFilterBuilder,
+      Context context,
+      FilterInterner interner) {
+    this.interner = interner;
+    this.prefix = intern(Objects.requireNonNull(prefix));
     this.compareFilterBuilder =
         compareFilterBuilder != null ? compareFilterBuilder : DEFAULT_COMPARE_FILTER_BUILDER;
-    this.context = new Context();
+    this.context = Objects.requireNonNull(context);
+  }
+
+  Context context() {
+    return context;
+  }
+
+  String prefix() {
+    return prefix;
   }
 
   @Override
   public Filter visitParenExp(ScimParser.ParenExpContext ctx) {
-    Filter inner = visit(ctx.query());
-    if (ctx.NOT() != null) {
-      return new NotFilter(inner);
-    }
-    return new ParenFilter(inner);
+    return paren(ctx.NOT() != null, visit(ctx.query()));
   }
 
   @Override
   public Filter visitLogicalExp(ScimParser.LogicalExpContext ctx) {
     Filter left = visit(ctx.query(0));
     Filter right = visit(ctx.query(1));
-    String operator = ctx.LOGICAL_OPERATOR().getText().toLowerCase();
-
-    return switch (operator) {
-      case "and" -> new AndFilter(left, right);
-      case "or" -> new OrFilter(left, right);
-      default -> throw new IllegalArgumentException("Unknown logical operator: " + operator);
-    };
+    return logical(ctx.LOGICAL_OPERATOR().getText(), left, right);
   }
 
   @Override
   public Filter visitPresentExp(ScimParser.PresentExpContext ctx) {
-    Filter attributePath = visitAttrPath(ctx.attrPath());
-    return new PresentFilter(attributePath);
+    return present(visitAttrPath(ctx.attrPath()));
   }
 
   @Override
   public Filter visitInExp(ScimParser.InExpContext ctx) {
     Filter attributePath = visitAttrPath(ctx.attrPath());
     Filter values = visitArrayValue(ctx.arrayValue());
-    return new InFilter(attributePath, (ArrayValueFilter) values, context);
+    return in(attributePath, values);
   }
 
   @Override
@@ -68,24 +95,18 @@ public class ScimEvaluator extends ScimBaseVisitor<Filter> {
     String operator = ctx.op.getText();
     Filter value = visit(ctx.value());
 
-    return compareFilterBuilder.apply(
-        new ComparisonFilter(attributePath, operator, value, context));
+    return compare(attributePath, operator, value);
   }
 
   @Override
   public Filter visitAttrPath(ScimParser.AttrPathContext ctx) {
-    String attrName = ctx.ATTRNAME().getText();
-    if (ctx.subAttr() != null) {
-      Filter subAttr = visitSubAttr(ctx.subAttr());
-      return new AttributeFilter(attrName, subAttr, prefix, context);
-    }
-    return new AttributeFilter(attrName, null, prefix, context);
+    Filter subAttr = ctx.subAttr() != null ? visitSubAttr(ctx.subAttr()) : null;
+    return attribute(ctx.ATTRNAME().getText(), subAttr);
   }
 
   @Override
   public Filter visitSubAttr(ScimParser.SubAttrContext ctx) {
-    String attrName = ctx.attrPath().ATTRNAME().getText();
-    return new AttributeFilter(attrName, null, "", context);
+    return subAttribute(ctx.attrPath().ATTRNAME().getText());
   }
 
   @Override
@@ -95,79 +116,174 @@ public class ScimEvaluator extends ScimBaseVisitor<Filter> {
       values.add(visit(valueCtx));
     }
 
-    return new ArrayValueFilter(values, context);
+    return array(values);
   }
 
   @Override
   public Filter visitDouble(ScimParser.DoubleContext ctx) {
-    return new ValueFilter(Double.parseDouble(ctx.DOUBLE().getText()), context);
+    return numberValue(ctx.DOUBLE().getText(), true);
   }
 
   @Override
   public Filter visitLong(ScimParser.LongContext ctx) {
-    return new ValueFilter(Long.parseLong(ctx.getText()), context);
+    return numberValue(ctx.getText(), false);
   }
 
   @Override
   public Filter visitBoolean(ScimParser.BooleanContext ctx) {
-    return new ValueFilter(Boolean.parseBoolean(ctx.BOOLEAN().getText()), context);
+    return booleanValue(ctx.BOOLEAN().getText());
   }
 
   @Override
   public Filter visitString(ScimParser.StringContext ctx) {
-    String text = ctx.STRING().getText();
-    // Remove surrounding quotes
-    text = text.substring(1, text.length() - 1);
-    // Handle escaped characters
-    text =
-        text.replace("\\\"", "\"")
-            .replace("\\\\", "\\")
-            .replace("\\/", "/")
-            .replace("\\b", "\b")
-            .replace("\\f", "\f")
-            .replace("\\n", "\n")
-            .replace("\\r", "\r")
-            .replace("\\t", "\t");
-    return new ValueFilter(text, context);
+    return stringValue(ctx.STRING().getText());
   }
 
   @Override
   public Filter visitJsonString(ScimParser.JsonStringContext ctx) {
-    String text = ctx.JSON_STRING().getText();
-    // Remove surrounding quotes and $ prefix: "${...}" -> "{...}"
-    text = text.substring(2, text.length() - 1);
-    // Handle escaped characters
-    text =
-        text.replace("\\\"", "\"")
-            .replace("\\\\", "\\")
-            .replace("\\/", "/")
-            .replace("\\b", "\b")
-            .replace("\\f", "\f")
-            .replace("\\n", "\n")
-            .replace("\\r", "\r")
-            .replace("\\t", "\t");
-    return new ValueFilter(text, ValueFilter.ValueType.JSON, context);
+    return jsonValue(ctx.JSON_STRING().getText());
   }
 
   @Override
   public Filter visitUuidString(ScimParser.UuidStringContext ctx) {
-    String text = ctx.UUID_STRING().getText();
-    // Remove surrounding quotes and # prefix, normalize to lowercase
-    text = text.substring(2, text.length() - 1).toLowerCase();
-    return new ValueFilter(text, ValueFilter.ValueType.UUID, context);
+    return uuidValue(ctx.UUID_STRING().getText());
   }
 
   @Override
   public Filter visitTimestampString(ScimParser.TimestampStringContext ctx) {
-    String text = ctx.TIMESTAMP_STRING().getText();
-    // Remove surrounding quotes and @ prefix: "@2025-11-12T22:07:34.995962737Z" ->
-    // "2025-11-12T22:07:34.995962737Z"
-    text = text.substring(2, text.length() - 1);
-    return new ValueFilter(text, ValueFilter.ValueType.TIMESTAMP, context);
+    return timestampValue(ctx.TIMESTAMP_STRING().getText());
   }
 
   @Override
   public Filter visitNull(ScimParser.NullContext ctx) {
-    return new ValueFilter("null", ValueFilter.ValueType.NULL, context);
+    return nullValue();
+  }
+
+  // Node factories, shared with FilterListener, which builds filters while parsing.
+
+  Filter paren(boolean not, Filter inner) {
+    return intern(not ? new NotFilter(inner) : new ParenFilter(inner));
+  }
+
+  Filter logical(String operatorText, Filter left, Filter right) {
+    String operator = operatorText.toLowerCase();
+    return switch (operator) {
+      case "and" -> intern(new AndFilter(left, right));
+      case "or" -> intern(new OrFilter(left, right));
+      default -> throw new IllegalArgumentException("Unknown logical operator: " + operator);
+    };
+  }
+
+  Filter present(Filter attributePath) {
+    return intern(new PresentFilter(attributePath));
+  }
+
+  Filter in(Filter attributePath, Filter values) {
+    return intern(new InFilter(attributePath, (ArrayValueFilter) values, context));
+  }
+
+  /** A comparison node, passed through the compare filter builder. */
+  Filter compare(Filter attribute, String operator, Filter value) {
+    return intern(
+        compareFilterBuilder.apply(
+            new ComparisonFilter(attribute, intern(operator), value, context)));
+  }
+
+  Filter attribute(String name, Filter subAttr) {
+    return intern(new AttributeFilter(intern(name), subAttr, prefix, context));
+  }
+
+  Filter subAttribute(String name) {
+    return intern(new AttributeFilter(intern(name), null, intern(""), context));
+  }
+
+  Filter array(List<Filter> values) {
+    return intern(new ArrayValueFilter(values, context));
+  }
+
+  Filter numberValue(String text, boolean decimal) {
+    return intern(new ValueFilter(number(text, decimal), context));
+  }
+
+  /**
+   * The narrowest exact representation of a numeric literal: a {@link Long} for integers that fit,
+   * exponent or not; for decimals a {@link Double} if it prints back as the same number; otherwise
+   * a {@link BigDecimal}. Values outside the range of Postgres {@code numeric} are rejected.
+   */
+  static Number number(String text, boolean decimal) {
+    // Plain integers of up to 18 digits always fit in a long.
+    if (!decimal && text.length() <= 18 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+      return Long.parseLong(text);
+    }
+    BigDecimal exact;
+    try {
+      exact = new BigDecimal(text);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Numeric literal out of range: " + text);
+    }
+    var integerDigits = (long) exact.precision() - exact.scale();
+    if (exact.signum() != 0
+        && (integerDigits > NUMERIC_INTEGER_DIGITS || exact.scale() > NUMERIC_FRACTION_DIGITS)) {
+      throw new IllegalArgumentException("Numeric literal out of range: " + text);
+    }
+    if (!decimal) {
+      try {
+        return exact.longValueExact();
+      } catch (ArithmeticException e) {
+        return exact;
+      }
+    }
+    var value = exact.doubleValue();
+    return Double.isFinite(value) && BigDecimal.valueOf(value).compareTo(exact) == 0
+        ? value
+        : exact;
+  }
+
+  Filter booleanValue(String text) {
+    return intern(new ValueFilter(Boolean.parseBoolean(text), context));
+  }
+
+  Filter stringValue(String token) {
+    // Remove surrounding quotes
+    String text = token.substring(1, token.length() - 1);
+    return intern(new ValueFilter(intern(unescape(text)), context));
+  }
+
+  Filter jsonValue(String token) {
+    // Remove surrounding quotes and $ prefix: "${...}" -> "{...}"
+    String text = token.substring(2, token.length() - 1);
+    return intern(new ValueFilter(intern(unescape(text)), ValueFilter.ValueType.JSON, context));
+  }
+
+  Filter uuidValue(String token) {
+    // Remove surrounding quotes and # prefix, normalize to lowercase
+    String text = token.substring(2, token.length() - 1).toLowerCase();
+    return intern(new ValueFilter(intern(text), ValueFilter.ValueType.UUID, context));
+  }
+
+  Filter timestampValue(String token) {
+    // Remove surrounding quotes and @ prefix: "@2025-11-12T22:07:34.995962737Z" ->
+    // "2025-11-12T22:07:34.995962737Z"
+    String text = token.substring(2, token.length() - 1);
+    return intern(new ValueFilter(intern(text), ValueFilter.ValueType.TIMESTAMP, context));
+  }
+
+  Filter nullValue() {
+    return intern(new ValueFilter("null", ValueFilter.ValueType.NULL, context));
+  }
+
+  private static String unescape(String text) {
+    return text.replace("\\\"", "\"")
+        .replace("\\\\", "\\")
+        .replace("\\/", "/")
+        .replace("\\b", "\b")
+        .replace("\\f", "\f")
+        .replace("\\n", "\n")
+        .replace("\\r", "\r")
+        .replace("\\t", "\t");
+  }
+
+  private <T> T intern(T node) {
+    return interner == null ? node : interner.intern(node);
   }
 }
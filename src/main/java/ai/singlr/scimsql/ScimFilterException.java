@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A filter or attribute path that is not valid SCIM syntax. Malformed input is routine (scanners,
+ * broken clients), so this exception records no stack trace and formats its message only when
+ * asked; the structured fields are meant for error responses and metrics.
+ */
+public final class ScimFilterException extends IllegalArgumentException {
+
+  @Serial private static final long serialVersionUID = 1L;
+
+  private final int position;
+  private final String offendingText;
+  private final transient Supplier<List<String>> expected;
+  // An array rather than a List so the field is serializable.
+  private String[] expectedTokens;
+
+  /**
+   * @param position the zero-based character offset of the error
+   * @param offendingText the text found there, or null at the end of the input
+   * @param expected computes the token names that would have been valid, on first use
+   */
+  ScimFilterException(int position, String offendingText, Supplier<List<String>> expected) {
+    this.position = position;
+    this.offendingText = offendingText;
+    this.expected = expected;
+  }
+
+  public int position() {
+    return position;
+  }
+
+  /** The offending text, or null if the input ended early. */
+  public String offendingText() {
+    return offendingText;
+  }
+
+  /**
+   * Token names that would have been valid at {@link #position()}, e.g. {@code 'eq'}, {@code SP}.
+   */
+  public synchronized List<String> expectedTokens() {
+    if (expectedTokens == null) {
+      expectedTokens = expected == null ? new String[0] : expected.get().toArray(String[]::new);
+    }
+    return List.of(expectedTokens);
+  }
+
+  // The supplier is not serialized, so compute the tokens before it is lost.
+  @Serial
+  private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+    expectedTokens();
+    out.defaultWriteObject();
+  }
+
+  @Override
+  public String getMessage() {
+    var message =
+        new StringBuilder("Invalid filter syntax at position ")
+            .append(position)
+            .append(": unexpected ")
+            .append(offendingText == null ? "end of input" : quote(offendingText));
+    var tokens = expectedTokens();
+    if (!tokens.isEmpty()) {
+      message.append(", expecting ");
+      message.append(tokens.size() == 1 ? tokens.getFirst() : "one of " + tokens);
+    }
+    return message.toString();
+  }
+
+  // No stack trace: the cause is the input, not the call site.
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+  private static String quote(String text) {
+    return "'" + text.replace("\n", "\\n").replace("\t", "\\t") + "'";
+  }
+}
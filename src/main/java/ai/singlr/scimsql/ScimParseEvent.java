@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event covering one {@link ScimEngine} parse, with the duration of each phase. */
+@Name("ai.singlr.scimsql.Parse")
+@Label("SCIM Filter Parse")
+@Category({"SCIM", "Filter"})
+@Description("Lexing, parsing and evaluation of a SCIM filter expression")
+@StackTrace(false)
+public final class ScimParseEvent extends Event {
+
+  @Label("Input Length")
+  @DataAmount(DataAmount.BYTES)
+  int inputLength;
+
+  @Label("Tokens")
+  int tokenCount;
+
+  @Label("Nodes")
+  int nodeCount;
+
+  @Label("Fingerprint")
+  @Description("64-bit FilterFingerprint of the filter shape")
+  long fingerprint;
+
+  @Label("Lex Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long lexDuration;
+
+  @Label("Parse Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long parseDuration;
+
+  @Label("Evaluate Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long evaluateDuration;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event covering the rendering of a {@link Filter} into SQL and its parameters. */
+@Name("ai.singlr.scimsql.Render")
+@Label("SCIM Filter Render")
+@Category({"SCIM", "Filter"})
+@Description("Rendering of a SCIM filter tree into a SQL clause and parameters")
+@StackTrace(false)
+public final class ScimRenderEvent extends Event {
+
+  @Label("Nodes")
+  int nodeCount;
+
+  @Label("Parameters")
+  int paramCount;
+
+  @Label("Clause Length")
+  int clauseLength;
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.List;
+
+/**
+ * A short, deterministic workload that drives every grammar rule, value type and public entry
+ * point, including the syntax error path. Run it once at build time to record a JDK AOT cache (or a
+ * CDS archive on older JDKs) so instances start with the lexer, parser and evaluator already loaded
+ * and linked:
+ *
+ * <pre>{@code
+ * java -XX:AOTCacheOutput=app.aot -cp app.jar ai.singlr.scimsql.ScimTraining
+ * java -XX:AOTCache=app.aot -cp app.jar com.example.Main
+ * }</pre>
+ *
+ * <p>The optional argument is the number of iterations (default 200).
+ */
+public final class ScimTraining {
+
+  static final List<String> FILTERS =
+      List.of(
+          "userName eq \"john\"",
+          "userName ne \"john\" and age gt 21",
+          "age lt 65 or age ge 18 and age le 30",
+          "displayName co \"smith\" or displayName sw \"j\" or displayName ew \"son\"",
+          "name.familyName eq \"O\\\"Malley\\u00e9\"",
+          "emails.value pr and not (emails.primary eq false)",
+          "not(title eq null)",
+          "(active eq true or active eq false) and (score gt 1.5 or score lt -2.5e3)",
+          "id eq \"#123e4567-e89b-12d3-a456-426614174000\"",
+          "meta.lastModified gt \"@2025-01-01T00:00:00Z\" and meta.created le"
+              + " \"@2025-01-01T00:00:00.123Z\"",
+          "attributes eq \"${\\\"department\\\": \\\"eng\\\"}\"",
+          "id in [\"#123e4567-e89b-12d3-a456-426614174000\","
+              + " \"#550e8400-e29b-41d4-a716-446655440000\"]",
+          "externalId in [\"a\", \"b\", \"c\"] and level in [1, 2, 3]",
+          "tags in []",
+          "eh.userId eq \"x\" and urn:example:User:title pr");
+
+  static final List<String> INVALID =
+      List.of("userName eq", "userName xx \"a\"", "(active eq true", "userName eq \"open", "");
+
+  private ScimTraining() {}
+
+  public static void main(String[] args) {
+    run(args.length > 0 ? Integer.parseInt(args[0]) : 200);
+  }
+
+  /** Runs the workload {@code iterations} times and returns the number of parameters bound. */
+  public static int run(int iterations) {
+    var engine = new ScimEngine();
+    var parameters = 0;
+    for (var i = 0; i < iterations; i++) {
+      for (var expression : FILTERS) {
+        var filter = engine.parseFilter(expression, "t", null);
+        parameters += engine.render(filter).params().size();
+        FilterFingerprint.of(filter).toHex();
+
+        var compiled = engine.compileFilter(expression, null);
+        parameters += compiled.bind("u").size();
+        parameters += compiled.and(compiled).not().bind("").size();
+
+        var page =
+            engine.parsePage(
+                expression,
+                "t",
+                new PageRequest("userName", SortOrder.DESCENDING, 1, 10, null),
+                null);
+        var token = page.nextPageToken("john", "42");
+        parameters +=
+            engine
+                .parsePage(
+                    expression,
+                    "t",
+                    new PageRequest("userName", SortOrder.DESCENDING, 1, 10, token),
+                    null)
+                .params()
+                .size();
+        page.countQuery("users t", CountStrategy.capped(1000));
+      }
+      engine.parseProjection(
+          List.of("userName", "name.givenName"),
+          null,
+          List.of("id", "userName", "name", "emails"),
+          "t",
+          null);
+      for (var expression : INVALID) {
+        try {
+          engine.parseFilter(expression, "t", null);
+        } catch (IllegalArgumentException expected) {
+          parameters--;
+        }
+      }
+    }
+    return parameters;
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+public enum SortOrder {
+  ASCENDING("ASC", ">"),
+  DESCENDING("DESC", "<");
+
+  private final String sql;
+  private final String keysetOperator;
+
+  SortOrder(String sql, String keysetOperator) {
+    this.sql = sql;
+    this.keysetOperator = keysetOperator;
+  }
+
+  public String sql() {
+    return sql;
+  }
+
+  public String keysetOperator() {
+    return keysetOperator;
+  }
+
+  /** Maps the SCIM {@code sortOrder} parameter; an absent value defaults to ascending. */
+  public static SortOrder fromScim(String sortOrder) {
+    if (sortOrder == null || sortOrder.isEmpty() || sortOrder.equalsIgnoreCase("ascending")) {
+      return ASCENDING;
+    }
+    if (sortOrder.equalsIgnoreCase("descending")) {
+      return DESCENDING;
+    }
+    throw new IllegalArgumentException("Unsupported sortOrder: " + sortOrder);
+  }
+}
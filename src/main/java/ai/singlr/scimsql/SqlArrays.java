@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.List;
+
+/** Maps literal values onto one Postgres array type and the Java array to bind for it. */
+final class SqlArrays {
+
+  private SqlArrays() {}
+
+  /**
+   * The element type shared by {@code values} of the given {@link ValueFilter.ValueType types},
+   * e.g. {@code text} or {@code bigint}, or null if they have none. Null values fit any type.
+   */
+  static String elementType(List<ValueFilter.ValueType> types, List<?> values) {
+    String sqlType = null;
+    for (var i = 0; i < values.size(); i++) {
+      var value = values.get(i);
+      if (value == null) {
+        continue;
+      }
+      var elementType =
+          switch (types.get(i)) {
+            case UUID -> "uuid";
+            case TIMESTAMP -> "timestamptz";
+            case STRING ->
+                switch (value) {
+                  case String s -> "text";
+                  case Long l -> "bigint";
+                  case Integer n -> "bigint";
+                  case Number n -> "numeric";
+                  case Boolean b -> "boolean";
+                  default -> null;
+                };
+            default -> null;
+          };
+      if (elementType == null) {
+        return null;
+      }
+      if (sqlType == null || sqlType.equals(elementType)) {
+        sqlType = elementType;
+      } else if (isNumeric(sqlType) && isNumeric(elementType)) {
+        sqlType = "numeric";
+      } else {
+        return null;
+      }
+    }
+    return sqlType == null ? "text" : sqlType;
+  }
+
+  /** {@code values} as the Java array pgjdbc and R2DBC bind to {@code sqlType[]}. */
+  static Object toArray(String sqlType, List<?> values) {
+    return switch (sqlType) {
+      case "bigint" ->
+          values.stream()
+              .map(v -> v == null ? null : ((Number) v).longValue())
+              .toArray(Long[]::new);
+      case "boolean" -> values.stream().map(v -> (Boolean) v).toArray(Boolean[]::new);
+      default -> values.stream().map(v -> v == null ? null : v.toString()).toArray(String[]::new);
+    };
+  }
+
+  private static boolean isNumeric(String sqlType) {
+    return sqlType.equals("bigint") || sqlType.equals("numeric");
+  }
+}
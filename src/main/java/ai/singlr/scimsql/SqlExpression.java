@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A dialect-neutral SQL predicate built from a {@link Filter} tree, for query builders that compose
+ * conditions structurally instead of embedding {@link Filter#toClause()} as opaque text. Columns
+ * are already mapped to snake case and qualified; literals stay typed {@link Bind} values. Adapters
+ * implement {@link Visitor}; {@link SqlRenderer} is the Postgres one.
+ */
+public sealed interface SqlExpression {
+
+  <R> R accept(Visitor<R> visitor);
+
+  /**
+   * Converts a parsed filter. Nested {@code and}/{@code or} are flattened and parentheses dropped.
+   * Comparisons from a compare filter builder are rejected, since their custom SQL has no structure
+   * to convert.
+   */
+  static SqlExpression of(Filter filter) {
+    return switch (filter) {
+      case ParenFilter paren -> of(paren.inner());
+      case AndFilter and -> new And(operands(and, AndFilter.class));
+      case OrFilter or -> new Or(operands(or, OrFilter.class));
+      case NotFilter not -> new Not(of(not.filter()));
+      case PresentFilter present -> new IsNotNull(Column.of(present.attribute()));
+      case InFilter in ->
+          new In(
+              Column.of(in.attribute()), in.arrayValue().values().stream().map(Bind::of).toList());
+      case ComparisonFilter comparison when comparison.getClass() == ComparisonFilter.class ->
+          comparison(comparison);
+      default ->
+          throw new IllegalArgumentException(
+              "Unsupported filter node: " + filter.getClass().getSimpleName());
+    };
+  }
+
+  private static SqlExpression comparison(ComparisonFilter comparison) {
+    var column = Column.of(comparison.attribute());
+    var value = Bind.of(comparison.value());
+    return switch (comparison.operator()) {
+      case "eq" ->
+          new Comparison(
+              column,
+              value.type() == ValueFilter.ValueType.JSON ? Operator.JSON_CONTAINS : Operator.EQUAL,
+              value);
+      case "ne" -> new Comparison(column, Operator.NOT_EQUAL, value);
+      case "gt" -> new Comparison(column, Operator.GREATER, value);
+      case "lt" -> new Comparison(column, Operator.LESS, value);
+      case "ge" -> new Comparison(column, Operator.GREATER_OR_EQUAL, value);
+      case "le" -> new Comparison(column, Operator.LESS_OR_EQUAL, value);
+      case "co" -> new Like(column, LikeMatch.CONTAINS, value);
+      case "sw" -> new Like(column, LikeMatch.STARTS_WITH, value);
+      case "ew" -> new Like(column, LikeMatch.ENDS_WITH, value);
+      default ->
+          throw new IllegalArgumentException("Unsupported operator: " + comparison.operator());
+    };
+  }
+
+  private static List<SqlExpression> operands(Filter filter, Class<? extends Filter> type) {
+    var operands = new ArrayList<SqlExpression>();
+    collect(filter, type, operands);
+    return List.copyOf(operands);
+  }
+
+  private static void collect(
+      Filter filter, Class<? extends Filter> type, List<SqlExpression> out) {
+    switch (filter) {
+      case ParenFilter paren -> collect(paren.inner(), type, out);
+      case AndFilter and when type == AndFilter.class -> {
+        collect(and.left(), type, out);
+        collect(and.right(), type, out);
+      }
+      case OrFilter or when type == OrFilter.class -> {
+        collect(or.left(), type, out);
+        collect(or.right(), type, out);
+      }
+      default -> out.add(of(filter));
+    }
+  }
+
+  enum Operator {
+    EQUAL("="),
+    NOT_EQUAL("!="),
+    GREATER(">"),
+    LESS("<"),
+    GREATER_OR_EQUAL(">="),
+    LESS_OR_EQUAL("<="),
+    /** JSON containment, Postgres {@code @>}. */
+    JSON_CONTAINS("@>");
+
+    private final String sql;
+
+    Operator(String sql) {
+      this.sql = sql;
+    }
+
+    public String sql() {
+      return sql;
+    }
+  }
+
+  /** Case-insensitive pattern match of {@code co}, {@code sw} and {@code ew}. */
+  enum LikeMatch {
+    CONTAINS,
+    STARTS_WITH,
+    ENDS_WITH
+  }
+
+  /** A possibly qualified column, e.g. {@code [t, user_name]}. */
+  record Column(List<String> path) {
+    public Column {
+      path = List.copyOf(path);
+      if (path.isEmpty()) {
+        throw new IllegalArgumentException("Column path must not be empty");
+      }
+    }
+
+    static Column of(Filter attribute) {
+      return new Column(Arrays.asList(Filter.camelToSnake(attribute.toClause()).split("\\.")));
+    }
+
+    public String name() {
+      return path.getLast();
+    }
+
+    @Override
+    public String toString() {
+      return String.join(".", path);
+    }
+  }
+
+  /** A typed literal to bind; {@code value} may be null. */
+  record Bind(Object value, ValueFilter.ValueType type) {
+    public Bind {
+      Objects.requireNonNull(type);
+    }
+
+    static Bind of(Filter value) {
+      if (value instanceof ValueFilter valueFilter) {
+        return new Bind(valueFilter.value(), valueFilter.type());
+      }
+      throw new IllegalArgumentException("Not a literal: " + value);
+    }
+  }
+
+  record Comparison(Column column, Operator operator, Bind value) implements SqlExpression {
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitComparison(this);
+    }
+  }
+
+  record Like(Column column, LikeMatch match, Bind value) implements SqlExpression {
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitLike(this);
+    }
+  }
+
+  record In(Column column, List<Bind> values) implements SqlExpression {
+    public In {
+      values = List.copyOf(values);
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitIn(this);
+    }
+  }
+
+  record IsNotNull(Column column) implements SqlExpression {
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitIsNotNull(this);
+    }
+  }
+
+  record And(List<SqlExpression> operands) implements SqlExpression {
+    public And {
+      operands = List.copyOf(operands);
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitAnd(this);
+    }
+  }
+
+  record Or(List<SqlExpression> operands) implements SqlExpression {
+    public Or {
+      operands = List.copyOf(operands);
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitOr(this);
+    }
+  }
+
+  record Not(SqlExpression operand) implements SqlExpression {
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitNot(this);
+    }
+  }
+
+  /** Adapter from the expression tree to a query builder or dialect. */
+  interface Visitor<R> {
+    R visitComparison(Comparison comparison);
+
+    R visitLike(Like like);
+
+    R visitIn(In in);
+
+    R visitIsNotNull(IsNotNull isNotNull);
+
+    R visitAnd(And and);
+
+    R visitOr(Or or);
+
+    R visitNot(Not not);
+  }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** A piece of SQL together with the named parameters its placeholders refer to. */
+public record SqlFragment(String sql, Map<String, Object> params) {
+
+  public SqlFragment {
+    // Values may legitimately be null (e.g. "deletedAt eq null"), so Map.copyOf is not an option.
+    params = Collections.unmodifiableMap(new LinkedHashMap<>(params));
+  }
+}
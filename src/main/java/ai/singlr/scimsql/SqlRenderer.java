@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Renders a {@link SqlExpression} as Postgres SQL with numbered placeholders and collects the
+ * values to bind in placeholder order. Nested {@code AND}/{@code OR} operands are parenthesized. A
+ * renderer accumulates binds, so use a new one per statement.
+ */
+public final class SqlRenderer implements SqlExpression.Visitor<String> {
+
+  private final int firstIndex;
+  private final List<SqlExpression.Bind> binds = new ArrayList<>();
+
+  /** Numbers placeholders from {@code $1}. */
+  public SqlRenderer() {
+    this(1);
+  }
+
+  public SqlRenderer(int firstIndex) {
+    if (firstIndex < 1) {
+      throw new IllegalArgumentException("First parameter index must be positive: " + firstIndex);
+    }
+    this.firstIndex = firstIndex;
+  }
+
+  public String render(SqlExpression expression) {
+    return expression.accept(this);
+  }
+
+  /** Values bound so far; the value for {@code $n} is at {@code n - firstIndex}. */
+  public List<SqlExpression.Bind> binds() {
+    return List.copyOf(binds);
+  }
+
+  @Override
+  public String visitComparison(SqlExpression.Comparison comparison) {
+    return "%s %s %s"
+        .formatted(comparison.column(), comparison.operator().sql(), bind(comparison.value()));
+  }
+
+  @Override
+  public String visitLike(SqlExpression.Like like) {
+    var column = like.column();
+    var value = bind(like.value());
+    return switch (like.match()) {
+      case CONTAINS -> "LOWER(%s) LIKE '%%' || LOWER(%s) || '%%'".formatted(column, value);
+      case STARTS_WITH -> "LOWER(%s) LIKE LOWER(%s) || '%%'".formatted(column, value);
+      case ENDS_WITH -> "LOWER(%s) LIKE '%%' || LOWER(%s)".formatted(column, value);
+    };
+  }
+
+  @Override
+  public String visitIn(SqlExpression.In in) {
+    return in.column()
+        + " IN ("
+        + in.values().stream().map(this::bind).collect(Collectors.joining(", "))
+        + ")";
+  }
+
+  @Override
+  public String visitIsNotNull(SqlExpression.IsNotNull isNotNull) {
+    return isNotNull.column() + " IS NOT NULL";
+  }
+
+  @Override
+  public String visitAnd(SqlExpression.And and) {
+    return join(and.operands(), " AND ");
+  }
+
+  @Override
+  public String visitOr(SqlExpression.Or or) {
+    return join(or.operands(), " OR ");
+  }
+
+  @Override
+  public String visitNot(SqlExpression.Not not) {
+    return "NOT (" + not.operand().accept(this) + ")";
+  }
+
+  private String join(List<SqlExpression> operands, String operator) {
+    var builder = new StringBuilder();
+    for (var operand : operands) {
+      if (!builder.isEmpty()) {
+        builder.append(operator);
+      }
+      var sql = operand.accept(this);
+      if (operand instanceof SqlExpression.And || operand instanceof SqlExpression.Or) {
+        builder.append('(').append(sql).append(')');
+      } else {
+        builder.append(sql);
+      }
+    }
+    return builder.toString();
+  }
+
+  private String bind(SqlExpression.Bind bind) {
+    binds.add(bind);
+    return ValueFilter.castParam(bind.type(), "$" + (firstIndex + binds.size() - 1));
+  }
+}
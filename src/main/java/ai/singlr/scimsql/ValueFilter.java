@@ -44,4 +44,18 @@ public record ValueFilter(Object value, ValueType type, Context context) impleme
   public boolean isJson() {
     return type == ValueType.JSON;
   }
+
+  /** Wraps a parameter placeholder in the SQL cast this value's type needs, if any. */
+  public String castParam(String paramKey) {
+    return castParam(type, paramKey);
+  }
+
+  static String castParam(ValueType type, String paramKey) {
+    return switch (type) {
+      case UUID -> "CAST(%s AS UUID)".formatted(paramKey);
+      case TIMESTAMP -> "CAST(%s AS timestamptz)".formatted(paramKey);
+      case JSON -> "CAST(%s AS jsonb)".formatted(paramKey);
+      default -> paramKey;
+    };
+  }
 }
@@ -12,6 +12,8 @@
  * and the in operator with typed values (UUID, timestamp, JSON, boolean, number, string).
  */
 module ai.singlr.scimsql {
+  requires jdk.jfr;
+  requires static r2dbc.spi;
   requires org.antlr.antlr4.runtime;
 
   exports ai.singlr.scimsql;
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BulkQuery")
+class BulkQueryTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  private CompiledFilter compile(String filter) {
+    return engine.compileFilter(filter, null);
+  }
+
+  @Test
+  @DisplayName("filters of one shape share a lateral VALUES branch")
+  void shouldJoinSameShapeLaterally() {
+    var bulk = new BulkQuery("t.*", "users t", "t");
+    assertEquals(0, bulk.add(compile("userName eq \"a\" and active eq true")));
+    assertEquals(1, bulk.add(compile("userName eq \"b\" and active eq false")));
+
+    var sql = bulk.toSql();
+
+    assertEquals(
+        "SELECT v.operation, bulk.* FROM (VALUES (0, :b0_userName1, :b0_active1),"
+            + " (1, :b1_userName1, :b1_active1)) AS v(operation, userName1, active1)"
+            + " CROSS JOIN LATERAL (SELECT t.* FROM users t"
+            + " WHERE t.user_name = v.userName1 AND t.active = v.active1) AS bulk",
+        sql.sql());
+    assertEquals(
+        Map.of("b0_userName1", "a", "b0_active1", true, "b1_userName1", "b", "b1_active1", false),
+        sql.params());
+  }
+
+  @Test
+  @DisplayName("different shapes become UNION ALL branches")
+  void shouldUnionDifferentShapes() {
+    var bulk = new BulkQuery("t.id", "users t", "t");
+    bulk.add(compile("userName eq \"a\""));
+    bulk.add(compile("emails.value co \"@example\" or id pr"));
+    bulk.add(compile("userName eq \"c\""));
+
+    var sql = bulk.toSql();
+
+    assertEquals(
+        "SELECT v.operation, bulk.* FROM (VALUES (0, :b0_userName1), (2, :b2_userName1))"
+            + " AS v(operation, userName1) CROSS JOIN LATERAL"
+            + " (SELECT t.id FROM users t WHERE t.user_name = v.userName1) AS bulk"
+            + " UNION ALL SELECT 1 AS operation, t.id FROM users t WHERE"
+            + " LOWER(emails.value) LIKE '%' || LOWER(:b1_emails_value1) || '%' OR t.id IS NOT NULL",
+        sql.sql());
+    assertEquals(
+        List.of("b0_userName1", "b2_userName1", "b1_emails_value1"),
+        List.copyOf(sql.params().keySet()));
+  }
+
+  @Test
+  @DisplayName("an empty batch is rejected")
+  void shouldRejectEmptyBatch() {
+    assertThrows(IllegalStateException.class, () -> new BulkQuery("*", "users", "").toSql());
+  }
+}
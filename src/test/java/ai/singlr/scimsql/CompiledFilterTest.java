@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CompiledFilter")
+class CompiledFilterTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("binds the parsed literals with any table prefix")
+  void shouldBindWithPrefix() {
+    var compiled = engine.compileFilter("userName eq \"john\" and age gt 21", null);
+
+    var bound = compiled.bind("t");
+    assertEquals("t.user_name = :userName1 AND t.age > :age1", bound.sql());
+    assertEquals(Map.of("userName1", "john", "age1", 21L), bound.params());
+
+    assertEquals("u.user_name = :userName1 AND u.age > :age1", compiled.bind("u").sql());
+    assertEquals("user_name = :userName1 AND age > :age1", compiled.bind("").sql());
+  }
+
+  @Test
+  @DisplayName("matches the clause and parameters of parseFilter")
+  void shouldMatchParseFilter() {
+    var expression =
+        "id in [\"#123e4567-e89b-12d3-a456-426614174000\", \"#550e8400-e29b-41d4-a716-446655440000\"]"
+            + " or (eh.userId pr and meta eq \"${\\\"a\\\": 1}\") or name co \"x\"";
+    var parsed = engine.parseFilter(expression, "t", null);
+    var bound = engine.compileFilter(expression, null).bind("t");
+
+    assertEquals(parsed.toClause(), bound.sql());
+    assertEquals(parsed.context().indexedParams(), bound.params());
+  }
+
+  @Test
+  @DisplayName("exposes parameters in binding order with their types")
+  void shouldExposeParameterVector() {
+    var compiled =
+        engine.compileFilter(
+            "createdAt gt \"@2025-01-01T00:00:00Z\" and id in [\"#123e4567-e89b-12d3-a456-426614174000\"]"
+                + " and deletedAt eq null",
+            null);
+
+    assertEquals(List.of("createdAt1", "id1", "deletedAt1"), compiled.parameterNames());
+    assertEquals(ValueFilter.ValueType.TIMESTAMP, compiled.parameterType(0));
+    assertEquals(ValueFilter.ValueType.UUID, compiled.parameterType(1));
+    assertEquals(ValueFilter.ValueType.NULL, compiled.parameterType(2));
+    assertEquals("2025-01-01T00:00:00Z", compiled.parameterValue(0));
+
+    var bound = compiled.bind("t");
+    assertEquals(3, bound.size());
+    assertEquals("id1", bound.name(1));
+    assertEquals(ValueFilter.ValueType.UUID, bound.type(1));
+    assertEquals(ValueFilter.ValueType.NULL, bound.type(2));
+  }
+
+  @Test
+  @DisplayName("binds other values to the same shape")
+  void shouldBindOtherValues() {
+    var compiled = engine.compileFilter("userName eq \"john\"", null);
+
+    var bound = compiled.bind("t", "jane");
+
+    assertEquals("jane", bound.value(0));
+    assertEquals("john", compiled.bind("t").value(0));
+    assertThrows(IllegalArgumentException.class, () -> compiled.bind("t", "a", "b"));
+  }
+
+  @Test
+  @DisplayName("caches the clause for the last prefix")
+  void shouldCacheClause() {
+    var compiled = engine.compileFilter("a eq 1", null);
+    var clause = compiled.clause("t");
+    assertSame(clause, compiled.clause("t"));
+    assertEquals("u.a = :a1", compiled.clause("u"));
+    assertEquals(clause, compiled.clause("t"));
+    var positional = compiled.positionalClause("t", 1);
+    assertSame(positional, compiled.positionalClause("t", 1));
+    assertEquals("t.a = $2", compiled.positionalClause("t", 2));
+  }
+
+  @Test
+  @DisplayName("honours custom comparison filters")
+  void shouldUseCompareFilterBuilder() {
+    var compiled =
+        engine.compileFilter(
+            "tags eq \"admin\"",
+            cf ->
+                new ComparisonFilter.ListFilter(cf) {
+                  @Override
+                  public String paramKey(String indexedKey) {
+                    return "ANY(:" + indexedKey + ")";
+                  }
+                });
+    assertEquals("t.tags = ANY(:tags1)", compiled.bind("t").sql());
+  }
+
+  @Test
+  @DisplayName("one instance serves concurrent requests")
+  void shouldBindConcurrently() {
+    var compiled = engine.compileFilter("userName eq \"x\" and age gt 1", null);
+
+    IntStream.range(0, 10_000)
+        .parallel()
+        .forEach(
+            i -> {
+              var prefix = "t" + (i % 7);
+              var bound = compiled.bind(prefix, "user" + i, (long) i);
+              assertEquals(
+                  prefix + ".user_name = :userName1 AND " + prefix + ".age > :age1", bound.sql());
+              assertEquals(Map.of("userName1", "user" + i, "age1", (long) i), bound.params());
+            });
+  }
+
+  @Test
+  @DisplayName("invalid filter is rejected")
+  void shouldRejectInvalidFilter() {
+    assertThrows(IllegalArgumentException.class, () -> engine.compileFilter("userName eq", null));
+  }
+
+  @Test
+  @DisplayName("composes compiled filters without parameter collisions")
+  void shouldComposeWithoutCollisions() {
+    var security = engine.compileFilter("tenantId eq \"acme\" and active eq true", null);
+    var user = engine.compileFilter("active eq false or tenantId eq \"other\"", null);
+
+    var bound = security.and(user).bind("t");
+
+    assertEquals(
+        "(t.tenant_id = :tenantId1 AND t.active = :active1)"
+            + " AND (t.active = :active2 OR t.tenant_id = :tenantId2)",
+        bound.sql());
+    assertEquals(
+        List.of("tenantId1", "active1", "active2", "tenantId2"),
+        List.copyOf(bound.params().keySet()));
+    assertEquals(List.of("acme", true, false, "other"), List.copyOf(bound.params().values()));
+    assertEquals("tenantId1", security.parameterName(0));
+  }
+
+  @Test
+  @DisplayName("composition matches parsing the combined expression")
+  void shouldMatchCombinedParse() {
+    var left =
+        engine.compileFilter(
+            "userName sw \"j\" and id in [\"#123e4567-e89b-12d3-a456-426614174000\"]", null);
+    var right = engine.compileFilter("not (userName eq \"x\") and id pr", null);
+
+    var composed = left.or(right.not()).bind("t");
+    var parsed =
+        engine.parseFilter(
+            "(userName sw \"j\" and id in [\"#123e4567-e89b-12d3-a456-426614174000\"])"
+                + " or (not (not (userName eq \"x\") and id pr))",
+            "t",
+            null);
+
+    assertEquals(parsed.toClause(), composed.sql());
+    assertEquals(parsed.context().indexedParams(), composed.params());
+  }
+
+  @Test
+  @DisplayName("composed filters bind new values in composed order")
+  void shouldBindComposedValues() {
+    var tenant = engine.compileFilter("tenantId eq \"a\"", null);
+    var composed = tenant.and(engine.compileFilter("tenantId eq \"b\"", null));
+
+    var bound = composed.bind("", "x", "y");
+
+    assertEquals("(tenant_id = :tenantId1) AND (tenant_id = :tenantId2)", bound.sql());
+    assertEquals(Map.of("tenantId1", "x", "tenantId2", "y"), bound.params());
+  }
+
+  @Test
+  @DisplayName("filters with unrecognised placeholders cannot be composed")
+  void shouldRejectCustomPlaceholders() {
+    var custom =
+        engine.compileFilter(
+            "tags eq \"admin\"",
+            cf ->
+                new ComparisonFilter.ListFilter(cf) {
+                  @Override
+                  public String paramKey(String indexedKey) {
+                    return "?";
+                  }
+                });
+    var plain = engine.compileFilter("a eq 1", null);
+
+    assertEquals("t.tags = ?", custom.bind("t").sql());
+    assertEquals("NOT (t.tags = ?)", custom.not().bind("t").sql());
+    assertThrows(IllegalArgumentException.class, () -> plain.and(custom));
+  }
+}
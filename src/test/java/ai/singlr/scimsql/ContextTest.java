@@ -8,6 +8,7 @@ package ai.singlr.scimsql;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -144,4 +145,79 @@ class ContextTest {
     var context = new Context();
     assertTrue(context.isValid(Set.of()));
   }
+
+  @Test
+  @DisplayName("exposes bindings in order with their types")
+  void shouldExposeBindingsInOrder() {
+    var context = new Context();
+    var name = new AttributeFilter("name", null, "t", context);
+    var id = new AttributeFilter("id", null, "t", context);
+    context.process(name, new ValueFilter("john", context), k -> ":" + k);
+    context.processArray(
+        id, List.of(new ValueFilter("abc", ValueFilter.ValueType.UUID, context)), k -> ":" + k);
+    context.process(name, new ValueFilter("jane", context), k -> ":" + k);
+
+    assertEquals(3, context.size());
+    assertEquals("name1", context.key(0));
+    assertEquals("id1", context.key(1));
+    assertEquals(ValueFilter.ValueType.UUID, context.type(1));
+    assertEquals("jane", context.value(2));
+    assertEquals(List.of("name1", "id1", "name2"), List.copyOf(context.indexedParams().keySet()));
+    assertEquals(List.of("john", "jane"), context.params().get("name"));
+  }
+
+  @Test
+  @DisplayName("named maps are updated by new bindings")
+  void shouldUpdateMapsAfterBinding() {
+    var context = new Context();
+    var attr = new AttributeFilter("name", null, "t", context);
+    context.process(attr, new ValueFilter("john", context), k -> ":" + k);
+    assertEquals(1, context.indexedParams().size());
+
+    context.process(attr, new ValueFilter("jane", context), k -> ":" + k);
+
+    assertEquals(2, context.indexedParams().size());
+    assertEquals(2, context.params().get("name").size());
+  }
+
+  @Test
+  @DisplayName("maps fetched before rendering are live and keep caller edits")
+  void shouldKeepLiveMaps() {
+    var engine = new ScimEngine();
+    var filter = engine.parseFilter("name eq \"john\" and age gt 21", "t", null);
+    var indexed = filter.context().indexedParams();
+    var grouped = filter.context().params();
+    indexed.put("tenant", "acme");
+
+    filter.toClause();
+
+    assertEquals(List.of("tenant", "name1", "age1"), List.copyOf(indexed.keySet()));
+    assertEquals(indexed, filter.context().indexedParams());
+    assertEquals(List.of("john"), grouped.get("name"));
+    assertEquals(List.of(21L), grouped.get("age"));
+  }
+
+  @Test
+  @DisplayName("reset clears bindings and numbering for reuse")
+  void shouldResetForReuse() {
+    var context = new Context();
+    var attr = new AttributeFilter("name", null, "t", context);
+    for (var i = 0; i < 20; i++) {
+      context.process(attr, new ValueFilter("v" + i, context), k -> ":" + k);
+    }
+
+    context.reset();
+
+    assertEquals(0, context.size());
+    assertTrue(context.indexedParams().isEmpty());
+    assertTrue(context.isValid(Set.of()));
+    assertEquals(":name1", context.process(attr, new ValueFilter("x", context), k -> ":" + k));
+  }
+
+  @Test
+  @DisplayName("indexed accessors check bounds")
+  void shouldCheckBounds() {
+    var context = new Context();
+    assertThrows(IndexOutOfBoundsException.class, () -> context.key(0));
+  }
 }
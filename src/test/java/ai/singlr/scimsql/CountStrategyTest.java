@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CountStrategy")
+class CountStrategyTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("exact count reuses the filter clause and parameters")
+  void shouldBuildExactCount() {
+    var page =
+        engine.parsePage(
+            "active eq true", "t", new PageRequest("userName", null, 1, 10, null), null);
+
+    var count = page.countQuery("users t", CountStrategy.exact());
+
+    assertEquals("SELECT count(*) FROM users t WHERE t.active = :active1", count.sql());
+    assertEquals(page.filter().params(), count.params());
+  }
+
+  @Test
+  @DisplayName("capped count wraps a limited subquery")
+  void shouldBuildCappedCount() {
+    var page = engine.parsePage("age gt 21", "t", new PageRequest(null, null, 1, 10, null), null);
+
+    var count = page.countQuery("users t", CountStrategy.capped(1000));
+
+    assertEquals(
+        "SELECT count(*) FROM (SELECT 1 FROM users t WHERE t.age > :age1 LIMIT 1000) AS capped",
+        count.sql());
+    assertEquals(21L, count.params().get("age1"));
+  }
+
+  @Test
+  @DisplayName("estimated count explains the filtered scan")
+  void shouldBuildEstimatedCount() {
+    var page = engine.parsePage(null, "t", new PageRequest(null, null, 1, 10, null), null);
+
+    var count = page.countQuery("users t", CountStrategy.estimated());
+
+    assertEquals("EXPLAIN (FORMAT JSON) SELECT 1 FROM users t", count.sql());
+    assertTrue(count.params().isEmpty());
+  }
+
+  @Test
+  @DisplayName("count ignores the keyset predicate of later pages")
+  void shouldIgnoreKeysetPredicate() {
+    var token = new PageToken(null, null, null, UUID.randomUUID()).encode();
+    var page =
+        engine.parsePage("active eq true", "t", new PageRequest(null, null, 1, 10, token), null);
+
+    var count = page.countQuery("users t", CountStrategy.exact());
+
+    assertEquals("SELECT count(*) FROM users t WHERE t.active = :active1", count.sql());
+    assertEquals(1, count.params().size());
+    assertEquals(2, page.params().size());
+  }
+
+  @Test
+  @DisplayName("first page shares one fragment for filter and where")
+  void shouldShareFragmentWithoutToken() {
+    var page =
+        engine.parsePage("active eq true", "t", new PageRequest(null, null, 1, 10, null), null);
+    assertSame(page.filter(), page.where());
+  }
+
+  @Test
+  @DisplayName("parses the top-level plan row estimate")
+  void shouldParseEstimate() {
+    var plan =
+        """
+        [{"Plan": {"Node Type": "Seq Scan", "Startup Cost": 0.00, "Total Cost": 35.50, \
+        "Plan Rows": 2550, "Plan Width": 4, "Plans": [{"Plan Rows": 7}]}}]""";
+    assertEquals(2550L, CountStrategy.parseEstimate(plan));
+    assertEquals(12L, CountStrategy.parseEstimate("{\"Plan Rows\":1.2e1}"));
+    assertThrows(IllegalArgumentException.class, () -> CountStrategy.parseEstimate("[]"));
+  }
+
+  @Test
+  @DisplayName("capped mode requires a positive cap")
+  void shouldRejectNonPositiveCap() {
+    assertThrows(IllegalArgumentException.class, () -> CountStrategy.capped(0));
+    assertThrows(NullPointerException.class, () -> new CountStrategy(null, 0));
+  }
+}
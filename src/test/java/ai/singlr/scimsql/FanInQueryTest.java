@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FanInQuery")
+class FanInQueryTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("joins one typed array per parameter and reports the tuple index")
+  void shouldJoinUnnestedArrays() {
+    var compiled =
+        engine.compileFilter(
+            "userName eq \"x\" and age gt 1 and id ne \"#123e4567-e89b-12d3-a456-426614174000\"",
+            null);
+    var tuples =
+        List.of(
+            new Object[] {"a", 10L, "123e4567-e89b-12d3-a456-426614174000"},
+            new Object[] {"b", 20L, "550e8400-e29b-41d4-a716-446655440000"});
+
+    var query = FanInQuery.of(compiled, "t.id", "users t", "t", tuples);
+
+    assertEquals(
+        "SELECT v.ordinality - 1 AS tuple_index, t.id FROM users t"
+            + " JOIN unnest(CAST(:userName1 AS text[]), CAST(:age1 AS bigint[]),"
+            + " CAST(:id1 AS uuid[])) WITH ORDINALITY AS v(userName1, age1, id1, ordinality)"
+            + " ON t.user_name = v.userName1 AND t.age > v.age1 AND t.id != CAST(v.id1 AS UUID)",
+        query.sql());
+    assertArrayEquals(new String[] {"a", "b"}, (Object[]) query.params().get("userName1"));
+    assertArrayEquals(new Long[] {10L, 20L}, (Object[]) query.params().get("age1"));
+  }
+
+  @Test
+  @DisplayName("mixed numbers widen to numeric and nulls are kept")
+  void shouldWidenNumbers() {
+    var compiled = engine.compileFilter("score ge 1", null);
+
+    var query =
+        FanInQuery.of(
+            compiled,
+            "*",
+            "scores",
+            "",
+            List.of(new Object[] {1L}, new Object[] {2.5}, new Object[] {null}));
+
+    assertEquals(
+        "SELECT v.ordinality - 1 AS tuple_index, * FROM scores"
+            + " JOIN unnest(CAST(:score1 AS numeric[])) WITH ORDINALITY AS v(score1, ordinality)"
+            + " ON score >= v.score1",
+        query.sql());
+    assertArrayEquals(new String[] {"1", "2.5", null}, (Object[]) query.params().get("score1"));
+  }
+
+  @Test
+  @DisplayName("tuples must match the filter's parameters")
+  void shouldRejectInvalidTuples() {
+    var compiled = engine.compileFilter("userName eq \"x\"", null);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            FanInQuery.of(compiled, "*", "users", "", List.<Object[]>of(new Object[] {"a", "b"})));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            FanInQuery.of(
+                compiled, "*", "users", "", List.of(new Object[] {"a"}, new Object[] {1L})));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FanInQuery.of(compiled, "*", "users", "", List.<Object[]>of()));
+  }
+}
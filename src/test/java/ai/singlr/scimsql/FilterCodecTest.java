@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterCodec")
+class FilterCodecTest {
+
+  private static final List<String> EXPRESSIONS =
+      List.of(
+          "userName eq \"john\"",
+          "name.givenName sw \"J\" and not (active eq false)",
+          "age gt 21 or score le -3.25 or balance eq 12345678901234567890.5 or n eq 1e5",
+          "id eq \"#123e4567-e89b-12d3-a456-426614174000\"",
+          "createdAt gt \"@2025-11-12T22:07:34.995962737Z\""
+              + " and updatedAt lt \"@2025-01-01T00:00:00.5+02:00\"",
+          "meta eq \"${\\\"tags\\\": [\\\"a\\\"]}\" and deletedAt eq null",
+          "emails.value pr or (title co \"eng\" and title ne \"Engineer\\n\\\"Lead\\\"\")",
+          "userName in [\"a\", \"b\", \"c\"] and id in [\"#550e8400-e29b-41d4-a716-446655440000\"]",
+          "displayName eq \"Zoë 日本\"");
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("decodes to the same clause and parameters as parsing")
+  void shouldRoundTrip() {
+    for (var expression : EXPRESSIONS) {
+      var parsed = engine.parseFilter(expression, "t", null);
+      var decoded = engine.decodeFilter(ByteBuffer.wrap(FilterCodec.encode(parsed)), "t", null);
+      assertEquals(parsed.toClause(), decoded.toClause(), expression);
+      assertEquals(parsed.context().indexedParams(), decoded.context().indexedParams(), expression);
+      assertEquals(FilterFingerprint.of(parsed), FilterFingerprint.of(decoded), expression);
+    }
+  }
+
+  @Test
+  @DisplayName("decodes compiled filters with their parameter types")
+  void shouldRoundTripCompiled() {
+    for (var expression : EXPRESSIONS) {
+      var compiled = engine.compileFilter(expression, null);
+      var decoded = engine.decodeCompiled(ByteBuffer.wrap(FilterCodec.encode(compiled)), null);
+      assertEquals(compiled.clause("u"), decoded.clause("u"), expression);
+      assertEquals(compiled.bind("u").params(), decoded.bind("u").params(), expression);
+      for (var i = 0; i < compiled.parameterCount(); i++) {
+        assertEquals(compiled.parameterType(i), decoded.parameterType(i), expression);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("stores each distinct string once")
+  void shouldDeduplicateStrings() {
+    var single = FilterCodec.encode(engine.parseFilter("department eq \"Engineering\"", "", null));
+    var repeated =
+        FilterCodec.encode(
+            engine.parseFilter(
+                "department eq \"Engineering\" or department eq \"Engineering\"", "", null));
+
+    // The second comparison costs its tags and indexes, not its strings.
+    assertTrue(repeated.length < single.length + 10, Arrays.toString(repeated));
+
+    // 16 bytes instead of a 36-character string table entry and its index.
+    var uuid = "123e4567-e89b-12d3-a456-426614174000";
+    var typed = FilterCodec.encode(engine.parseFilter("id eq \"#" + uuid + "\"", "", null));
+    var text = FilterCodec.encode(engine.parseFilter("id eq \"" + uuid + "\"", "", null));
+    assertEquals(text.length - (1 + 36) - 1 + 16, typed.length);
+  }
+
+  @Test
+  @DisplayName("reads consecutive records from buffers and streams")
+  void shouldStreamRecords() throws IOException {
+    var filters = EXPRESSIONS.stream().map(e -> engine.parseFilter(e, "", null)).toList();
+    var out = new ByteArrayOutputStream();
+    for (var filter : filters) {
+      FilterCodec.write(filter, out);
+    }
+
+    var buffer = ByteBuffer.allocateDirect(out.size());
+    filters.forEach(filter -> FilterCodec.write(filter, buffer));
+    buffer.flip();
+    var in = new ByteArrayInputStream(out.toByteArray());
+    for (var filter : filters) {
+      var fingerprint = FilterFingerprint.of(filter);
+      assertEquals(fingerprint, FilterFingerprint.of(engine.decodeFilter(buffer, "", null)));
+      assertEquals(
+          fingerprint, FilterFingerprint.of(engine.decodeFilter(FilterCodec.next(in), "", null)));
+    }
+    assertEquals(0, buffer.remaining());
+    assertNull(FilterCodec.next(in));
+  }
+
+  @Test
+  @DisplayName("applies the decoding engine's prefix and compare filter builder")
+  void shouldApplyPrefixAndBuilder() {
+    var encoded =
+        FilterCodec.encode(engine.parseFilter("tags eq \"a\" and name.givenName pr", "t", null));
+    var decoded =
+        (AndFilter)
+            engine.decodeFilter(ByteBuffer.wrap(encoded), "u", ComparisonFilter.ListFilter::new);
+
+    assertInstanceOf(ComparisonFilter.ListFilter.class, decoded.left());
+    assertEquals("u.tags = :tags1 AND name.given_name IS NOT NULL", decoded.toClause());
+  }
+
+  @Test
+  @DisplayName("rejects unknown versions and truncated or corrupt records")
+  void shouldRejectMalformedRecords() {
+    var encoded = FilterCodec.encode(engine.parseFilter("userName eq \"john\"", "", null));
+
+    var future = encoded.clone();
+    future[0] = 2;
+    var versionError =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> engine.decodeFilter(ByteBuffer.wrap(future), "", null));
+    assertEquals("Unsupported filter encoding version: 2", versionError.getMessage());
+
+    for (var length = 0; length < encoded.length; length++) {
+      var truncated = ByteBuffer.wrap(Arrays.copyOf(encoded, length));
+      assertThrows(IllegalArgumentException.class, () -> engine.decodeFilter(truncated, "", null));
+    }
+    var corrupt = encoded.clone();
+    corrupt[corrupt.length - 1] = (byte) 0x7F;
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> engine.decodeFilter(ByteBuffer.wrap(corrupt), "", null));
+  }
+
+  @Test
+  @DisplayName("rejects attribute names and operators the grammar would not accept")
+  void shouldRejectInjectedNames() {
+    var encoded = FilterCodec.encode(engine.parseFilter("userName eq \"john\"", "", null));
+
+    for (var replacement :
+        List.of(new String[] {"userName", "1=1 OR u"}, new String[] {"eq", "= "})) {
+      var corrupt = replace(encoded, replacement[0], replacement[1]);
+      var error =
+          assertThrows(
+              IllegalArgumentException.class,
+              () -> engine.decodeFilter(ByteBuffer.wrap(corrupt), "t", null));
+      assertTrue(error.getMessage().startsWith("Malformed encoded filter"), error.getMessage());
+    }
+  }
+
+  private static byte[] replace(byte[] bytes, String target, String replacement) {
+    var text = new String(bytes, StandardCharsets.ISO_8859_1);
+    var at = text.indexOf(target);
+    assertTrue(at > 0, target);
+    var corrupt = bytes.clone();
+    System.arraycopy(
+        replacement.getBytes(StandardCharsets.ISO_8859_1), 0, corrupt, at, replacement.length());
+    return corrupt;
+  }
+}
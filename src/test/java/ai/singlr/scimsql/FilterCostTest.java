@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterCost")
+class FilterCostTest {
+
+  private final ScimEngine engine = new ScimEngine();
+  private final FilterCost cost =
+      new FilterCost(
+          Map.of(
+              "id", FilterCost.Index.UNIQUE,
+              "userName", FilterCost.Index.UNIQUE,
+              "meta.lastModified", FilterCost.Index.BTREE,
+              "title", FilterCost.Index.TRIGRAM,
+              "extra", FilterCost.Index.GIN));
+
+  private double estimate(String filter) {
+    return cost.estimate(engine.parseFilter(filter, "t", null));
+  }
+
+  @Test
+  @DisplayName("scores comparisons by the index serving the attribute")
+  void shouldScoreByIndex() {
+    assertEquals(FilterCost.UNIQUE_LOOKUP, estimate("id eq \"1\""));
+    assertEquals(FilterCost.UNIQUE_LOOKUP, estimate("USERNAME eq \"john\""));
+    assertEquals(3 * FilterCost.UNIQUE_LOOKUP, estimate("id in [\"1\", \"2\", \"3\"]"));
+    assertEquals(20, estimate("meta.lastModified gt \"@2025-01-01T00:00:00Z\""));
+    assertEquals(25, estimate("title co \"eng\""));
+    assertEquals(10, estimate("extra eq \"${\\\"a\\\": 1}\""));
+    assertEquals(FilterCost.LIKE_SCAN, estimate("title co \"en\""));
+    assertEquals(FilterCost.LIKE_SCAN, estimate("displayName co \"eng\""));
+    assertEquals(FilterCost.SCAN, estimate("id ne \"1\""));
+    assertEquals(FilterCost.SCAN, estimate("not (id eq \"1\")"));
+  }
+
+  @Test
+  @DisplayName("drives and from its cheapest operand and sums or")
+  void shouldCombineOperands() {
+    assertEquals(
+        FilterCost.UNIQUE_LOOKUP + 2,
+        estimate("displayName co \"x\" and id eq \"1\" and active eq true"));
+    assertEquals(
+        4 * FilterCost.LIKE_SCAN,
+        estimate(
+            "displayName co \"a\" or displayName co \"b\" or nickName co \"c\" or (displayName"
+                + " co \"d\")"));
+  }
+
+  @Test
+  @DisplayName("routes filters by the first threshold their cost exceeds")
+  void shouldRouteByThreshold() {
+    var policy = new AdmissionPolicy(cost, 50, 200, 500);
+    var cases =
+        Map.of(
+            "id eq \"1\"", AdmissionPolicy.Route.PRIMARY,
+            "displayName eq \"x\"", AdmissionPolicy.Route.REPLICA,
+            "displayName co \"a\" or nickName co \"b\"", AdmissionPolicy.Route.QUEUE,
+            "displayName co \"a\" or nickName co \"b\" or title co \"c\" or title ew \"d\"",
+                AdmissionPolicy.Route.REJECT);
+    cases.forEach(
+        (filter, route) ->
+            assertEquals(route, policy.admit(engine.compileFilter(filter, null)).route(), filter));
+
+    var rejectOnly = AdmissionPolicy.rejectAbove(cost, 100);
+    assertEquals(AdmissionPolicy.Route.PRIMARY, rejectOnly.decide(100).route());
+    assertEquals(AdmissionPolicy.Route.REJECT, rejectOnly.decide(101).route());
+    assertTrue(policy.admit(engine.parseFilter("id ne \"1\"", "t", null)).cost() > 50);
+    assertThrows(IllegalArgumentException.class, () -> new AdmissionPolicy(cost, 10, 5, 20));
+  }
+}
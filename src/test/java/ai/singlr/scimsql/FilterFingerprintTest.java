@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterFingerprint")
+class FilterFingerprintTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  private FilterFingerprint fingerprint(String filter) {
+    return FilterFingerprint.of(engine.parseFilter(filter, "t", null));
+  }
+
+  private void assertSameShape(String first, String second) {
+    assertEquals(fingerprint(first), fingerprint(second));
+  }
+
+  private void assertDifferentShape(String first, String second) {
+    var a = fingerprint(first);
+    var b = fingerprint(second);
+    assertNotEquals(a.text(), b.text());
+    assertNotEquals(a.fingerprint64(), b.fingerprint64());
+  }
+
+  @Test
+  @DisplayName("literals are replaced by typed placeholders")
+  void shouldStripLiterals() {
+    assertEquals("userName eq ?", fingerprint("userName eq \"john\"").text());
+    assertEquals(
+        "id eq ?uuid", fingerprint("id eq \"#123e4567-e89b-12d3-a456-426614174000\"").text());
+    assertEquals("deletedAt eq null", fingerprint("deletedAt eq null").text());
+    assertSameShape("userName eq \"john\"", "userName eq \"jane\"");
+    assertDifferentShape("id eq \"x\"", "id eq \"#123e4567-e89b-12d3-a456-426614174000\"");
+  }
+
+  @Test
+  @DisplayName("commutative operands are flattened and sorted")
+  void shouldSortCommutativeOperands() {
+    assertSameShape("a eq 1 and b eq 2", "b eq 3 and a eq 4");
+    assertSameShape("a eq 1 and (b eq 2 and c eq 3)", "(c eq 1 and a eq 2) and b eq 3");
+    assertSameShape("a eq 1 or b eq 2", "b eq 1 or a eq 2");
+    assertDifferentShape("a eq 1 and b eq 2", "a eq 1 or b eq 2");
+  }
+
+  @Test
+  @DisplayName("nested operators keep their grouping")
+  void shouldKeepGrouping() {
+    assertEquals(
+        "(a eq ? or b eq ?) and c eq ?", fingerprint("c eq 3 and (b eq 2 or a eq 1)").text());
+    assertDifferentShape("(a eq 1 or b eq 2) and c eq 3", "a eq 1 or (b eq 2 and c eq 3)");
+  }
+
+  @Test
+  @DisplayName("redundant parentheses and double negation are removed")
+  void shouldNormalizeParensAndNot() {
+    assertSameShape("((a eq 1))", "a eq 1");
+    assertSameShape("not (not (a eq 1))", "a eq 1");
+    assertEquals("not (a pr)", fingerprint("not ((a pr))").text());
+  }
+
+  @Test
+  @DisplayName("in list length is not part of the shape")
+  void shouldIgnoreInListLength() {
+    assertSameShape("id in [1, 2]", "id in [3, 4, 5, 6]");
+    assertEquals("id in [?]", fingerprint("id in [1, 2]").text());
+  }
+
+  @Test
+  @DisplayName("fingerprint is stable across releases")
+  void shouldBeStable() {
+    var fingerprint = fingerprint("userName eq \"john\" and active eq true");
+    assertEquals("active eq ? and userName eq ?", fingerprint.text());
+    assertEquals(32, fingerprint.toHex().length());
+    assertEquals("6d927b327e505d8b9883b05dde0cf381", fingerprint.toHex());
+  }
+}
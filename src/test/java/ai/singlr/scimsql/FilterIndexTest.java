@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterIndex")
+class FilterIndexTest {
+
+  private final ScimEngine engine = new ScimEngine();
+  private final FilterIndex<String> index = new FilterIndex<>();
+
+  private void add(String id, String filter) {
+    index.add(id, engine.parseFilter(filter, "", null));
+  }
+
+  @Test
+  @DisplayName("returns the ids of matching filters")
+  void shouldMatchSavedFilters() {
+    add("engineering", "department eq \"Engineering\" and active eq true");
+    add("sales", "department in [\"Sales\", \"Marketing\"]");
+    add("seniors", "age ge 50");
+    add("juniors", "age lt 30 and age ge 18");
+    add("managers", "title co \"manager\"");
+    add("named", "nickName pr or department eq \"Sales\"");
+
+    assertEquals(
+        Set.of("engineering", "juniors", "managers"),
+        index.match(
+            Map.of(
+                "department", "Engineering", "active", true, "age", 25, "title", "Eng Manager")));
+    assertEquals(
+        Set.of("sales", "seniors", "named"),
+        index.match(Map.of("department", "Sales", "age", 50L)));
+    assertEquals(Set.of("named"), index.match(Map.of("nickName", "Bob", "age", 17)));
+  }
+
+  @Test
+  @DisplayName("removing or replacing a filter updates the index")
+  void shouldRemoveAndReplace() {
+    add("a", "department eq \"Sales\"");
+    add("b", "department eq \"Sales\"");
+    assertTrue(index.remove("a"));
+    assertFalse(index.remove("a"));
+    add("b", "age gt 10");
+
+    assertEquals(1, index.size());
+    assertEquals(Set.of(), index.match(Map.of("department", "Sales")));
+    assertEquals(Set.of("b"), index.match(Map.of("age", 11)));
+  }
+
+  @Test
+  @DisplayName("rejects filters that cannot be matched in memory")
+  void shouldRejectUnmatchableFilters() {
+    add("sales", "department eq \"Sales\"");
+    for (var filter :
+        List.of("meta eq \"${\\\"a\\\": 1}\"", "active eq true or not (meta eq \"${}\")")) {
+      var error = assertThrows(IllegalArgumentException.class, () -> add("json", filter));
+      assertEquals("JSON comparisons cannot be matched in memory", error.getMessage());
+    }
+
+    assertEquals(1, index.size());
+    assertEquals(Set.of("sales"), index.match(Map.of("department", "Sales")));
+  }
+
+  @Test
+  @DisplayName("agrees with evaluating every filter")
+  void shouldAgreeWithFullScan() {
+    var random = new Random(42);
+    var filters = new HashMap<String, Filter>();
+    var departments = List.of("Sales", "Engineering", "Legal", "Support");
+    for (var i = 0; i < 500; i++) {
+      var department = departments.get(random.nextInt(departments.size()));
+      var bound = random.nextInt(80);
+      var expression =
+          switch (i % 6) {
+            case 0 -> "department eq \"" + department + "\"";
+            case 1 -> "age gt " + bound + " and department ne \"" + department + "\"";
+            case 2 -> "age le " + bound + " or department eq \"" + department + "\"";
+            case 3 -> "(age ge " + bound + " and age lt " + (bound + 10) + ") and manager pr";
+            case 4 -> "not (department eq \"" + department + "\")";
+            default -> "department in [\"" + department + "\", \"Legal\"] and age gt " + bound;
+          };
+      var filter = engine.parseFilter(expression, "", null);
+      filters.put("f" + i, filter);
+      index.add("f" + i, filter);
+    }
+
+    for (var i = 0; i < 200; i++) {
+      var resource = new HashMap<String, Object>();
+      resource.put("department", departments.get(random.nextInt(departments.size())));
+      resource.put("age", random.nextInt(90));
+      if (random.nextBoolean()) {
+        resource.put("manager", "m" + i);
+      }
+      var expected =
+          filters.entrySet().stream()
+              .filter(e -> FilterMatcher.matches(e.getValue(), resource))
+              .map(Map.Entry::getKey)
+              .collect(Collectors.toSet());
+      assertEquals(expected, index.match(resource), resource.toString());
+    }
+  }
+}
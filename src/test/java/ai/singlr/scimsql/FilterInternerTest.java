@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterInterner")
+class FilterInternerTest {
+
+  private final ScimEngine engine = new ScimEngine();
+  private final FilterInterner interner = new FilterInterner();
+
+  private Filter parse(String filter) {
+    return engine.parseFilter(filter, interner);
+  }
+
+  // Past the first occurrence, which stays private.
+  private Filter canonical(String filter) {
+    parse(filter);
+    return parse(filter);
+  }
+
+  @Test
+  @DisplayName("shares structurally identical filters and subtrees")
+  void shouldShareIdenticalNodes() {
+    var first = parse("emails.value co \"@example.com\" and active eq true");
+    var second = parse("emails.value co \"@example.com\" and active eq true");
+    assertNotSame(first, second, "the first occurrence stays private");
+    assertSame(second, parse("emails.value co \"@example.com\" and active eq true"));
+
+    var third = (AndFilter) parse("emails.value co \"@example.com\" and age gt 30");
+    assertSame(((AndFilter) second).left(), third.left());
+    assertNotSame(second, third);
+
+    var in = (InFilter) canonical("userName in [\"a\", \"b\"]");
+    assertSame(in.arrayValue(), ((InFilter) parse("userName in [\"a\", \"b\"]")).arrayValue());
+    assertNotSame(in, canonical("userName in [\"b\", \"a\"]"));
+  }
+
+  @Test
+  @DisplayName("keeps literals of different types apart")
+  void shouldDistinguishLiteralTypes() {
+    assertNotSame(canonical("n eq 1"), canonical("n eq 1.0"));
+    assertNotSame(canonical("n eq \"1\""), canonical("n eq 1"));
+    assertNotSame(
+        canonical("id eq \"#123e4567-e89b-12d3-a456-426614174000\""),
+        canonical("id eq \"123e4567-e89b-12d3-a456-426614174000\""));
+    assertNotSame(canonical("name.givenName pr"), canonical("givenName pr"));
+  }
+
+  @Test
+  @DisplayName("interned filters evaluate in memory but do not render")
+  void shouldEvaluateButNotRender() {
+    var filter = parse("userName sw \"j\" and active eq true");
+    assertTrue(FilterMatcher.matches(filter, Map.of("userName", "john", "active", true)));
+    assertEquals(
+        FilterFingerprint.of(engine.parseFilter("userName sw \"j\" and active eq true", "", null)),
+        FilterFingerprint.of(filter));
+    assertThrows(IllegalStateException.class, filter::toClause);
+  }
+
+  @Test
+  @DisplayName("releases nodes no filter references")
+  void shouldReleaseUnreferencedNodes() throws InterruptedException {
+    var kept = new ArrayList<Filter>();
+    for (var i = 0; i < 1_000; i++) {
+      parse("userName eq \"user" + i + "\" and active eq true");
+    }
+    kept.add(canonical("userName eq \"kept\""));
+    for (var attempt = 0; attempt < 50 && interner.size() > 100; attempt++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertTrue(interner.size() < 100, "size " + interner.size());
+    assertSame(kept.getFirst(), parse("userName eq \"kept\""));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterListener")
+class FilterListenerTest {
+
+  private static final List<String> EXPRESSIONS =
+      List.of(
+          "userName eq \"john\"",
+          "name.givenName sw \"J\" and not (active eq false)",
+          "not (a eq 1) or (b ne -2 and c gt 1e5) or d lt -3.25e2",
+          "(((a eq 1)))",
+          "a eq 1 and b eq 2 or c eq 3 and (d eq 4 or e eq 5)",
+          "id eq \"#123E4567-e89b-12d3-a456-426614174000\" and createdAt ge \"@2025-01-01T00:00:00Z\"",
+          "meta eq \"${\\\"tags\\\": [\\\"a\\\"]}\" and deletedAt eq null",
+          "emails.value pr or x:urn.attr-name_2 co \"a\\\\b\\\"c\\n\"",
+          "userName in [] or id in [\"#550e8400-e29b-41d4-a716-446655440000\"]",
+          "age in [ 1 , -2, 3.5, 12345678901234567890 ] and userName in [\"x\", null, true]");
+
+  // The one-pass path serves uninstrumented engines; a listener makes the engine build the tree.
+  private final ScimEngine direct = new ScimEngine();
+  private final ScimEngine viaTree = new ScimEngine(new ScimEngineListener() {});
+
+  @Test
+  @DisplayName("builds the same filters as the tree visitor")
+  void shouldMatchVisitor() {
+    for (var expression : EXPRESSIONS) {
+      var built = direct.parseFilter(expression, "t", null);
+      var visited = viaTree.parseFilter(expression, "t", null);
+      assertEquals(FilterFingerprint.of(visited), FilterFingerprint.of(built), expression);
+      assertEquals(visited.toClause(), built.toClause(), expression);
+      assertEquals(visited.context().indexedParams(), built.context().indexedParams(), expression);
+    }
+  }
+
+  @Test
+  @DisplayName("applies the compare filter builder to every comparison")
+  void shouldApplyCompareFilterBuilder() {
+    var filter =
+        (OrFilter)
+            direct.parseFilter(
+                "tags eq \"a\" or tags eq \"b\"", "", ComparisonFilter.ListFilter::new);
+    assertInstanceOf(ComparisonFilter.ListFilter.class, filter.left());
+    assertInstanceOf(ComparisonFilter.ListFilter.class, filter.right());
+  }
+
+  @Test
+  @DisplayName("reports the syntax error rather than the half-built filter")
+  void shouldReportSyntaxErrors() {
+    for (var expression : List.of("userName eq", "a eq 1 and (b eq", "a in [1, 2", "a.b.")) {
+      var built =
+          assertThrows(ScimFilterException.class, () -> direct.parseFilter(expression, "", null));
+      var visited =
+          assertThrows(ScimFilterException.class, () -> viaTree.parseFilter(expression, "", null));
+      assertEquals(visited.getMessage(), built.getMessage(), expression);
+    }
+
+    var outOfRange =
+        assertThrows(
+            IllegalArgumentException.class, () -> direct.parseFilter("n eq 1e999999", "", null));
+    assertEquals("Numeric literal out of range: 1e999999", outOfRange.getMessage());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterMatcher")
+class FilterMatcherTest {
+
+  private static final Map<String, Object> USER =
+      Map.of(
+          "id",
+          UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+          "userName",
+          "John.Smith",
+          "age",
+          42,
+          "score",
+          1.5,
+          "active",
+          true,
+          "created",
+          OffsetDateTime.parse("2025-03-01T10:00:00+02:00"),
+          "name",
+          Map.of("givenName", "John", "familyName", "Smith"),
+          "emails",
+          List.of(
+              Map.of("value", "john@work.example", "type", "work"),
+              Map.of("value", "john@home.example", "type", "home")));
+
+  private final ScimEngine engine = new ScimEngine();
+
+  private boolean matches(String filter) {
+    return FilterMatcher.matches(engine.parseFilter(filter, "", null), USER);
+  }
+
+  @Test
+  @DisplayName("compares typed values like the generated SQL")
+  void shouldCompareTypedValues() {
+    assertTrue(matches("userName eq \"John.Smith\""));
+    assertFalse(matches("userName eq \"john.smith\""));
+    assertTrue(matches("username sw \"JOHN\" and userName co \"n.s\" and userName ew \"ITH\""));
+    assertTrue(matches("age eq 42 and age gt 41 and age le 42 and score lt 2.0"));
+    assertTrue(matches("active eq true and active ne false"));
+    assertTrue(matches("id eq \"#123e4567-e89b-12d3-a456-426614174000\""));
+    assertTrue(matches("created eq \"@2025-03-01T08:00:00Z\""));
+    assertTrue(matches("created gt \"@2025-01-01T00:00:00Z\""));
+  }
+
+  @Test
+  @DisplayName("compares integers beyond the range of long exactly")
+  void shouldCompareBigIntegers() {
+    var resource = Map.<String, Object>of("serial", new BigInteger("18446744073709551621"));
+    for (var filter : List.of("serial eq 18446744073709551621", "serial gt 18446744073709551620")) {
+      assertTrue(FilterMatcher.matches(engine.parseFilter(filter, "", null), resource), filter);
+    }
+    assertFalse(
+        FilterMatcher.matches(engine.parseFilter("serial lt 6", "", null), resource), "truncated");
+  }
+
+  @Test
+  @DisplayName("navigates sub-attributes and multi-valued attributes")
+  void shouldNavigateComplexAttributes() {
+    assertTrue(matches("name.familyName eq \"Smith\" and name pr"));
+    assertTrue(matches("emails.value ew \"home.example\""));
+    assertTrue(matches("emails.type in [\"other\", \"work\"]"));
+    assertFalse(matches("emails.type eq \"other\""));
+  }
+
+  @Test
+  @DisplayName("treats comparisons on missing attributes as unknown")
+  void shouldUseThreeValuedLogic() {
+    assertFalse(matches("title eq \"x\""));
+    assertFalse(matches("not (title eq \"x\")"));
+    assertTrue(matches("title eq \"x\" or active eq true"));
+    assertTrue(matches("title eq null and not (title pr)"));
+    assertTrue(matches("userName ne null"));
+  }
+
+  @Test
+  @DisplayName("JSON comparisons are rejected")
+  void shouldRejectJson() {
+    assertThrows(IllegalArgumentException.class, () -> matches("meta eq \"${\\\"a\\\": 1}\""));
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FilterResultCache")
+class FilterResultCacheTest {
+
+  private static final Map<String, Object> ANN =
+      Map.of("userName", "ann", "active", true, "title", "Engineer", "age", 31);
+  private static final Map<String, Object> BOB =
+      Map.of("userName", "bob", "active", true, "title", "Sales", "age", 45);
+  private static final Map<String, Object> CAT =
+      Map.of("userName", "cat", "active", false, "title", "Engineer", "age", 28);
+
+  private final ScimEngine engine = new ScimEngine();
+  private final FilterResultCache<Map<String, Object>> cache =
+      new FilterResultCache<>(row -> row, 10);
+
+  private Filter parse(String filter) {
+    return engine.parseFilter(filter, "", null);
+  }
+
+  private boolean implies(String narrower, String wider) {
+    return FilterSubsumption.implies(parse(narrower), parse(wider));
+  }
+
+  @Test
+  @DisplayName("proves containment for conjuncts, ranges, in sets and patterns")
+  void shouldProveContainment() {
+    var contained =
+        List.of(
+            List.of("active eq true and title sw \"Eng\"", "active eq true"),
+            List.of(
+                "(title eq \"x\" and active eq true) and age gt 3", "active eq true and age gt 1"),
+            List.of("age gt 40", "age gt 30"),
+            List.of("age ge 40", "age gt 30"),
+            List.of("age gt 30", "age ge 30"),
+            List.of("age lt 10", "age le 10"),
+            List.of("age eq 40", "age ge 40"),
+            List.of("age eq 40", "age gt 30 and age lt 50"),
+            List.of("age eq 40", "age eq 40.0"),
+            List.of("age in [1, 2]", "age in [1, 2, 3]"),
+            List.of("age eq 2", "age in [1, 2, 3]"),
+            List.of("age in [1, 2]", "age le 2"),
+            List.of("title sw \"Engin\"", "title sw \"eng\""),
+            List.of("title eq \"Engineer\"", "title co \"GINE\""),
+            List.of("title ew \"neer\"", "title co \"eer\""),
+            List.of("title eq \"x\"", "title pr"),
+            List.of("age eq 1 or age eq 2", "age in [1, 2]"),
+            List.of("age eq 1", "age eq 1 or title pr"),
+            List.of("userName eq \"a\"", "username eq \"a\""),
+            List.of("not (age eq 1)", "not (age eq 1)"));
+    for (var pair : contained) {
+      assertTrue(implies(pair.get(0), pair.get(1)), pair.get(0) + " => " + pair.get(1));
+    }
+
+    var notContained =
+        List.of(
+            List.of("active eq true", "active eq true and title sw \"Eng\""),
+            List.of("age gt 30", "age gt 40"),
+            List.of("age ge 30", "age gt 30"),
+            List.of("age gt 30", "age lt 50"),
+            List.of("age in [1, 2, 3]", "age in [1, 2]"),
+            List.of("title sw \"eng\"", "title sw \"engin\""),
+            List.of("title co \"gine\"", "title sw \"gine\""),
+            List.of("title gt \"b\"", "title gt \"a\""),
+            List.of("title eq null", "title pr"),
+            List.of("age eq 1 or title pr", "age eq 1"),
+            List.of("not (age eq 1)", "not (age eq 1 and title pr)"),
+            List.of("age eq 1", "userName eq 1"));
+    for (var pair : notContained) {
+      assertFalse(implies(pair.get(0), pair.get(1)), pair.get(0) + " =/=> " + pair.get(1));
+    }
+  }
+
+  @Test
+  @DisplayName("answers equivalent filters from the cache")
+  void shouldHitEquivalentFilter() {
+    cache.put(parse("active eq true and age gt 30"), List.of(BOB));
+
+    assertEquals(Optional.of(List.of(BOB)), cache.get(parse("(age gt 30) and active eq true")));
+    assertEquals(Optional.empty(), cache.get(parse("active eq false and age gt 30")));
+    assertEquals(new FilterResultCache.Stats(1, 0, 1), cache.stats());
+  }
+
+  @Test
+  @DisplayName("narrows the rows of a containing entry in memory")
+  void shouldNarrowContainingEntry() {
+    cache.put(parse("active eq true"), List.of(ANN, BOB));
+    cache.put(parse("title pr"), List.of(ANN, BOB, CAT));
+
+    assertEquals(
+        Optional.of(List.of(ANN)), cache.get(parse("active eq true and title sw \"Eng\"")));
+    assertEquals(
+        Optional.of(List.of(CAT)), cache.get(parse("title eq \"Engineer\" and age lt 30")));
+    assertEquals(new FilterResultCache.Stats(0, 2, 0), cache.stats());
+  }
+
+  @Test
+  @DisplayName("does not narrow rows cached before an attribute they hold was invalidated")
+  void shouldNotNarrowStaleRows() {
+    var sales = Map.<String, Object>of("userName", "dan", "active", true, "title", "Sales");
+    cache.put(parse("active eq true"), List.of(sales));
+    cache.invalidate("title");
+
+    // The entry survives, as its filter does not reference title, but its title may be stale.
+    assertEquals(Optional.of(List.of(sales)), cache.get(parse("active eq true")));
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and title sw \"Eng\"")));
+
+    var engineer = Map.<String, Object>of("userName", "dan", "active", true, "title", "Engineer");
+    cache.put(parse("active eq true"), List.of(engineer));
+    assertEquals(
+        Optional.of(List.of(engineer)), cache.get(parse("active eq true and title sw \"Eng\"")));
+  }
+
+  @Test
+  @DisplayName("bypasses filters built with a compare filter builder")
+  void shouldBypassCustomComparisons() {
+    cache.put(parse("tags eq \"a\""), List.of(ANN));
+    var custom = engine.parseFilter("tags eq \"a\"", "", ComparisonFilter.ListFilter::new);
+
+    assertEquals(Optional.empty(), cache.get(custom));
+    cache.put(custom, List.of(BOB));
+    assertEquals(Optional.of(List.of(ANN)), cache.get(parse("tags eq \"a\"")));
+  }
+
+  @Test
+  @DisplayName("misses when the narrower filter cannot be evaluated exactly in memory")
+  void shouldMissUnmatchableFilters() {
+    cache.put(parse("active eq true"), List.of(ANN, BOB));
+
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and title co \"a_b\"")));
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and userName gt \"a\"")));
+  }
+
+  @Test
+  @DisplayName("misses for pr and null comparisons, which the matcher evaluates unlike the SQL")
+  void shouldMissPresentAndNullComparisons() {
+    var blankTitle = Map.<String, Object>of("userName", "dan", "active", true, "title", "");
+    var noTitle = Map.<String, Object>of("userName", "eve", "active", true);
+    cache.put(parse("active eq true"), List.of(blankTitle, noTitle));
+
+    // The database returns dan for "title IS NOT NULL" and no row for "title = NULL".
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and title pr")));
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and title eq null")));
+    assertEquals(Optional.empty(), cache.get(parse("active eq true and not (title ne null)")));
+  }
+
+  @Test
+  @DisplayName("invalidates entries by the attributes their filters reference")
+  void shouldInvalidateByAttribute() {
+    cache.put(parse("active eq true"), List.of(ANN, BOB));
+    cache.put(parse("name.familyName eq \"Smith\""), List.of());
+    cache.put(parse("age gt 30 or title pr"), List.of(ANN, BOB, CAT));
+
+    cache.invalidate("userName");
+    assertEquals(3, cache.size());
+    cache.invalidate("TITLE");
+    assertEquals(2, cache.size());
+    cache.invalidate("name.givenName");
+    assertEquals(1, cache.size());
+    assertTrue(cache.get(parse("active eq true")).isPresent());
+
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  @DisplayName("drops rows loaded before an invalidation")
+  void shouldDropStalePut() {
+    var filter = engine.compileFilter("active eq true", null);
+    var version = cache.version();
+    cache.invalidate("active");
+    cache.put(filter, List.of(ANN, BOB), version);
+    assertEquals(Optional.empty(), cache.get(filter));
+
+    cache.put(filter, List.of(ANN, BOB), cache.version());
+    assertEquals(Optional.of(List.of(ANN, BOB)), cache.get(filter));
+  }
+
+  @Test
+  @DisplayName("evicts the least recently used entry")
+  void shouldEvictLeastRecentlyUsed() {
+    var small = new FilterResultCache<Map<String, Object>>(row -> row, 2);
+    small.put(parse("age eq 1"), List.of());
+    small.put(parse("age eq 2"), List.of());
+    small.get(parse("age eq 1"));
+    small.put(parse("age eq 3"), List.of());
+
+    assertEquals(2, small.size());
+    assertTrue(small.get(parse("age eq 1")).isPresent());
+    assertFalse(small.get(parse("age eq 2")).isPresent());
+  }
+}
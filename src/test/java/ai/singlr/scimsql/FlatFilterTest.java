@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FlatFilter")
+class FlatFilterTest {
+
+  private static final List<String> EXPRESSIONS =
+      List.of(
+          "userName eq \"john\"",
+          "name.givenName sw \"J\" and not (active eq false)",
+          "age gt 21 or score le 3.5 or title co \"eng\" or title ew \"er\" or age ne 40",
+          "id eq \"#123e4567-e89b-12d3-a456-426614174000\" and createdAt ge \"@2025-01-01T00:00:00Z\"",
+          "meta eq \"${\\\"tags\\\": [\\\"a\\\"]}\" and deletedAt eq null",
+          "emails.value pr or ((title co \"eng\" and title ne \"Engineer\") or not (age lt 18))",
+          "userName in [\"a\", \"b\", \"c\", \"d\"] or id in [\"#550e8400-e29b-41d4-a716-446655440000\"]",
+          "age in [1, 2, 3.5] and (a eq 1 or (b eq 2 and c eq 3)) and userName in [\"x\", null]");
+
+  private static final List<Map<String, Object>> RESOURCES =
+      List.of(
+          Map.of("userName", "john", "active", true, "age", 30),
+          Map.of(
+              "userName",
+              "a",
+              "name",
+              Map.of("givenName", "Jane"),
+              "title",
+              "Engineer",
+              "emails",
+              List.of(Map.of("value", "j@example.com")),
+              "age",
+              17),
+          Map.of(
+              "id",
+              UUID.fromString("550e8400-e29b-41d4-a716-446655440000"),
+              "createdAt",
+              Instant.parse("2025-06-01T00:00:00Z"),
+              "a",
+              1,
+              "age",
+              2,
+              "userName",
+              "x"),
+          Map.of("score", 3.5, "active", false, "title", "Sales Manager", "b", 2, "c", 4));
+
+  // A low threshold so the four-element in lists render as one array parameter.
+  private final ScimEngine engine = new ScimEngine(ScimEngineListener.NOOP, 4);
+
+  @Test
+  @DisplayName("renders the same clause and parameters as the tree")
+  void shouldRenderLikeTree() {
+    for (var expression : EXPRESSIONS) {
+      var filter = engine.parseFilter(expression, "t", null);
+      var flat = FlatFilter.of(filter);
+      assertSameFragment(engine.render(filter), flat.render(), expression);
+      assertSameFragment(flat.render(), flat.render(), expression);
+    }
+  }
+
+  // Large in lists bind Java arrays, which only compare equal element by element.
+  private static void assertSameFragment(SqlFragment expected, SqlFragment actual, String message) {
+    assertEquals(expected.sql(), actual.sql(), message);
+    assertEquals(List.copyOf(expected.params().keySet()), List.copyOf(actual.params().keySet()));
+    assertArrayEquals(
+        expected.params().values().toArray(), actual.params().values().toArray(), message);
+  }
+
+  @Test
+  @DisplayName("matches resources as FilterMatcher does")
+  void shouldMatchLikeFilterMatcher() {
+    for (var expression : EXPRESSIONS) {
+      if (expression.contains("${")) {
+        continue;
+      }
+      var filter = engine.parseFilter(expression, "", null);
+      var flat = FlatFilter.of(filter);
+      for (var resource : RESOURCES) {
+        assertEquals(
+            FilterMatcher.matches(filter, resource),
+            flat.matches(resource),
+            expression + " on " + resource);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("short-circuits and and or like FilterMatcher")
+  void shouldShortCircuit() {
+    var flat =
+        FlatFilter.of(engine.parseFilter("userName eq \"john\" or meta eq \"${}\"", "", null));
+
+    // The JSON comparison is only reached, and rejected, when the left operand does not decide.
+    assertTrue(flat.matches(RESOURCES.getFirst()));
+    assertThrows(IllegalArgumentException.class, () -> flat.matches(RESOURCES.get(1)));
+  }
+
+  @Test
+  @DisplayName("flattens interned filters, so they can be rendered")
+  void shouldRenderInternedFilters() {
+    var expression = "userName sw \"j\" and emails.value co \"@example.com\"";
+    var interned = engine.parseFilter(expression, new FilterInterner());
+    var flat = FlatFilter.of(interned);
+
+    assertEquals(engine.render(engine.parseFilter(expression, "", null)), flat.render());
+    assertEquals(3, flat.size());
+  }
+
+  @Test
+  @DisplayName("rejects custom comparison nodes")
+  void shouldRejectCustomNodes() {
+    var filter = engine.parseFilter("tags eq \"a\"", "", ComparisonFilter.ListFilter::new);
+    assertThrows(IllegalArgumentException.class, () -> FlatFilter.of(filter));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PageToken")
+class PageTokenTest {
+
+  @Test
+  @DisplayName("round-trips string sort value and UUID id")
+  void shouldRoundTripStringAndUuid() {
+    var id = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    var token = new PageToken("userName", SortOrder.DESCENDING, "jo:hn|5", id);
+
+    var decoded = PageToken.decode(token.encode());
+
+    assertEquals(token, decoded);
+    assertEquals("jo:hn|5", decoded.sortValue());
+    assertEquals(id, decoded.id());
+  }
+
+  @Test
+  @DisplayName("normalizes numeric and temporal values")
+  void shouldNormalizeValues() {
+    var time = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(2));
+    var token = new PageToken(null, null, time, 42);
+
+    var decoded = PageToken.decode(token.encode());
+
+    assertNull(decoded.sortBy());
+    assertEquals(SortOrder.ASCENDING, decoded.sortOrder());
+    assertEquals(Instant.parse("2025-01-02T01:04:05Z"), decoded.sortValue());
+    assertEquals(42L, decoded.id());
+  }
+
+  @Test
+  @DisplayName("round-trips null, boolean, double and decimal values")
+  void shouldRoundTripOtherTypes() {
+    assertEquals(
+        new PageToken("a", null, null, 1L),
+        PageToken.decode(new PageToken("a", null, null, 1L).encode()));
+    assertEquals(true, PageToken.decode(new PageToken("a", null, true, 1L).encode()).sortValue());
+    assertEquals(2.5, PageToken.decode(new PageToken("a", null, 2.5f, 1L).encode()).sortValue());
+    assertEquals(
+        new BigDecimal("10.00"),
+        PageToken.decode(new PageToken("a", null, new BigDecimal("10.00"), 1L).encode())
+            .sortValue());
+  }
+
+  @Test
+  @DisplayName("round-trips the token that starts the NULL run")
+  void shouldRoundTripNullRunToken() {
+    var token = new PageToken("title", SortOrder.DESCENDING, null, null);
+    assertEquals(token, PageToken.decode(token.encode()));
+  }
+
+  @Test
+  @DisplayName("encoded token is URL safe")
+  void shouldBeUrlSafe() {
+    var encoded = new PageToken("userName", null, "a/b+c?d=e", 1L).encode();
+    assertFalse(encoded.matches(".*[+/=].*"), encoded);
+  }
+
+  @Test
+  @DisplayName("rejects null id and unsupported value types")
+  void shouldRejectInvalidValues() {
+    assertThrows(NullPointerException.class, () -> new PageToken("a", null, "x", null));
+    assertThrows(NullPointerException.class, () -> new PageToken(null, null, null, null));
+    assertThrows(IllegalArgumentException.class, () -> new PageToken("a", null, new Object(), 1L));
+  }
+
+  @Test
+  @DisplayName("rejects malformed tokens")
+  void shouldRejectMalformedTokens() {
+    assertThrows(IllegalArgumentException.class, () -> PageToken.decode("!!!"));
+    assertThrows(IllegalArgumentException.class, () -> PageToken.decode(""));
+    assertThrows(IllegalArgumentException.class, () -> PageToken.decode("MlM"));
+    assertThrows(IllegalArgumentException.class, () -> PageToken.decode("MVM5OnVzZXJOYW1l"));
+  }
+}
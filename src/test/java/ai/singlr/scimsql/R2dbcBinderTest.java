@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+@DisplayName("R2dbcBinder")
+class R2dbcBinderTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("renders numbered placeholders in parameter order")
+  void shouldRenderPositionalClause() {
+    var compiled =
+        engine.compileFilter(
+            "userName eq \"john\" and (age gt 21 or id eq \"#123e4567-e89b-12d3-a456-426614174000\")",
+            null);
+
+    assertEquals(
+        "t.user_name = $1 AND (t.age > $2 OR t.id = CAST($3 AS UUID))",
+        compiled.positionalClause("t", 1));
+    assertEquals(
+        "user_name = $3 AND (age > $4 OR id = CAST($5 AS UUID))", compiled.positionalClause("", 3));
+    assertThrows(IllegalArgumentException.class, () -> compiled.positionalClause("t", 0));
+  }
+
+  @Test
+  @DisplayName("binds typed values by position")
+  void shouldBindTypedValues() {
+    var compiled =
+        engine.compileFilter(
+            "id eq \"#123e4567-e89b-12d3-a456-426614174000\" and created gt"
+                + " \"@2025-01-01T00:00:00Z\" and meta eq \"${\\\"a\\\": 1}\" and active eq true"
+                + " and age ge 18",
+            null);
+    var statement = new RecordingStatement();
+
+    R2dbcBinder.bind(statement, compiled.bind("t"), 2);
+
+    assertEquals(
+        List.of(
+            "1=" + UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+            "2=" + OffsetDateTime.parse("2025-01-01T00:00:00Z"),
+            "3={\"a\": 1}",
+            "4=true",
+            "5=18"),
+        statement.bindings);
+  }
+
+  @Test
+  @DisplayName("binds nulls with the type of the parameter")
+  void shouldBindTypedNulls() {
+    var compiled =
+        engine.compileFilter(
+            "age eq 3 and id eq \"#123e4567-e89b-12d3-a456-426614174000\" and name eq \"x\"", null);
+    var statement = new RecordingStatement();
+
+    R2dbcBinder.bind(statement, compiled.bind("t", null, null, null), 1);
+
+    assertEquals(List.of("0=null:String", "1=null:UUID", "2=null:String"), statement.bindings);
+  }
+
+  @Test
+  @DisplayName("renders null literals as NULL without a placeholder")
+  void shouldRenderNullLiterals() {
+    var compiled =
+        engine.compileFilter(
+            "deletedAt eq null and id eq \"#123e4567-e89b-12d3-a456-426614174000\"", null);
+    var statement = new RecordingStatement();
+
+    R2dbcBinder.bind(statement, compiled.bind("t"), 3);
+
+    assertEquals(
+        "t.deleted_at = NULL AND t.id = CAST($3 AS UUID)", compiled.positionalClause("t", 3));
+    assertEquals(
+        List.of("2=" + UUID.fromString("123e4567-e89b-12d3-a456-426614174000")),
+        statement.bindings);
+  }
+
+  private static final class RecordingStatement implements Statement {
+    private final List<String> bindings = new ArrayList<>();
+
+    @Override
+    public Statement add() {
+      return this;
+    }
+
+    @Override
+    public Statement bind(int index, Object value) {
+      bindings.add(index + "=" + value);
+      return this;
+    }
+
+    @Override
+    public Statement bind(String name, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Statement bindNull(int index, Class<?> type) {
+      bindings.add(index + "=null:" + type.getSimpleName());
+      return this;
+    }
+
+    @Override
+    public Statement bindNull(String name, Class<?> type) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<? extends Result> execute() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("ScimEngineListener")
+class ScimEngineListenerTest {
+
+  private static final class RecordingListener implements ScimEngineListener {
+    final List<Phase> phases = new ArrayList<>();
+    final List<Long> fingerprints = new ArrayList<>();
+    final List<Integer> nodeCounts = new ArrayList<>();
+    int rejected;
+
+    @Override
+    public void onPhase(Phase phase, long durationNanos) {
+      assertTrue(durationNanos >= 0);
+      phases.add(phase);
+    }
+
+    @Override
+    public void onParsed(long fingerprint, int inputLength, int nodeCount) {
+      fingerprints.add(fingerprint);
+      nodeCounts.add(nodeCount);
+    }
+
+    @Override
+    public void onRejected(int inputLength) {
+      rejected++;
+    }
+  }
+
+  @Test
+  @DisplayName("reports lex, parse and evaluate phases with node count")
+  void shouldReportParsePhases() {
+    var listener = new RecordingListener();
+    var engine = new ScimEngine(listener);
+
+    var filter = engine.parseFilter("userName eq \"john\" and active eq true", "t", null);
+
+    assertEquals(
+        List.of(
+            ScimEngineListener.Phase.LEX,
+            ScimEngineListener.Phase.PARSE,
+            ScimEngineListener.Phase.EVALUATE),
+        listener.phases);
+    assertEquals(List.of(7), listener.nodeCounts);
+    assertEquals("t.user_name = :userName1 AND t.active = :active1", filter.toClause());
+  }
+
+  @Test
+  @DisplayName("fingerprint ignores literals but not attributes or operators")
+  void shouldFingerprintShape() {
+    var listener = new RecordingListener();
+    var engine = new ScimEngine(listener);
+
+    engine.parseFilter("userName eq \"john\" and age gt 21", "t", null);
+    engine.parseFilter("userName eq \"jane\" and age gt 65", "t", null);
+    engine.parseFilter("userName eq \"jane\" or age gt 65", "t", null);
+    engine.parseFilter("displayName eq \"jane\" and age gt 65", "t", null);
+
+    var fingerprints = listener.fingerprints;
+    assertEquals(fingerprints.get(0), fingerprints.get(1));
+    assertNotEquals(fingerprints.get(1), fingerprints.get(2));
+    assertNotEquals(fingerprints.get(1), fingerprints.get(3));
+  }
+
+  @Test
+  @DisplayName("counts rejected filters")
+  void shouldCountRejections() {
+    var listener = new RecordingListener();
+    var engine = new ScimEngine(listener);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> engine.parseFilter("userName eq", "t", null));
+
+    assertEquals(1, listener.rejected);
+    assertTrue(listener.fingerprints.isEmpty());
+  }
+
+  @Test
+  @DisplayName("render reports the render phase and parsePage renders through it")
+  void shouldReportRenderPhase() {
+    var listener = new RecordingListener();
+    var engine = new ScimEngine(listener);
+
+    var fragment = engine.render(engine.parseFilter("age gt 21", "t", null));
+    assertEquals("t.age > :age1", fragment.sql());
+    assertEquals(21L, fragment.params().get("age1"));
+
+    engine.parsePage("age gt 21", "t", new PageRequest(null, null, 1, 10, null), null);
+    assertEquals(
+        2, listener.phases.stream().filter(ScimEngineListener.Phase.RENDER::equals).count());
+  }
+
+  @Test
+  @DisplayName("emits JFR parse and render events")
+  void shouldEmitJfrEvents(@TempDir Path dir) throws Exception {
+    var engine = new ScimEngine();
+    var file = dir.resolve("scim.jfr");
+    try (var recording = new Recording()) {
+      recording.enable(ScimParseEvent.class).withoutThreshold();
+      recording.enable(ScimRenderEvent.class).withoutThreshold();
+      recording.start();
+      engine.render(engine.parseFilter("userName eq \"john\"", "t", null));
+      assertThrows(IllegalArgumentException.class, () -> engine.parseFilter("(", "t", null));
+      recording.stop();
+      recording.dump(file);
+    }
+
+    var events = RecordingFile.readAllEvents(file);
+    var parses =
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("ai.singlr.scimsql.Parse"))
+            .toList();
+    var renders =
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("ai.singlr.scimsql.Render"))
+            .toList();
+
+    assertEquals(2, parses.size());
+    RecordedEvent parsed = parses.getFirst();
+    assertTrue(parsed.getBoolean("succeeded"));
+    assertEquals(18, parsed.getInt("inputLength"));
+    assertEquals(3, parsed.getInt("nodeCount"));
+    assertFalse(parses.get(1).getBoolean("succeeded"));
+    assertEquals(1, renders.size());
+    assertEquals(1, renders.getFirst().getInt("paramCount"));
+    Files.deleteIfExists(file);
+  }
+}
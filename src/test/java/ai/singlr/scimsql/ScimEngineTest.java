@@ -5,12 +5,17 @@
 
 package ai.singlr.scimsql;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -214,6 +219,25 @@ class ScimEngineTest {
       assertThrows(
           IllegalArgumentException.class, () -> engine.parseFilter("ageeq true", "t", null));
     }
+
+    @Test
+    @DisplayName("Trailing input after a complete filter")
+    void shouldThrowExceptionForTrailingInput() {
+      var error =
+          assertThrows(
+              ScimFilterException.class,
+              () -> engine.parseFilter("userName eq \"john\" x", "t", null));
+      assertEquals(19, error.position());
+
+      var instrumented = new ScimEngine(new ScimEngineListener() {});
+      for (var parser : List.of(engine, instrumented)) {
+        var trailing =
+            assertThrows(ScimFilterException.class, () -> parser.parseFilter("a eq 1)", "t", null));
+        assertEquals(
+            "Invalid filter syntax at position 6: unexpected ')', expecting EOF",
+            trailing.getMessage());
+      }
+    }
   }
 
   @Nested
@@ -278,6 +302,55 @@ class ScimEngineTest {
       assertEquals(150.0, result.context().indexedParams().get("score1"));
     }
 
+    @Test
+    @DisplayName("Integer with exponent")
+    void shouldHandleIntegerExponent() {
+      var cases =
+          List.of(
+              List.of("1e5", 100_000L),
+              List.of("1E+5", 100_000L),
+              List.of("-2E3", -2_000L),
+              List.of("1e05", 100_000L),
+              List.of("2E+01", 20L),
+              List.of("1e-2", new BigDecimal("0.01")),
+              List.of("1e30", new BigDecimal("1e30")),
+              List.of("99999999999999999999", new BigDecimal("99999999999999999999")),
+              List.of("9223372036854775807", Long.MAX_VALUE));
+      for (var c : cases) {
+        Filter result = engine.parseFilter("n eq " + c.get(0), "t", null);
+        assertEquals("t.n = :n1", result.toClause());
+        assertEquals(c.get(1), result.context().indexedParams().get("n1"), (String) c.get(0));
+      }
+    }
+
+    @Test
+    @DisplayName("Decimal that a double cannot hold exactly")
+    void shouldKeepExactDecimal() {
+      Filter result = engine.parseFilter("amount eq 0.10000000000000000001", "t", null);
+      result.toClause();
+      assertEquals(
+          new BigDecimal("0.10000000000000000001"),
+          result.context().indexedParams().get("amount1"));
+
+      result = engine.parseFilter("amount eq 1.0e400", "t", null);
+      result.toClause();
+      assertEquals(new BigDecimal("1.0e400"), result.context().indexedParams().get("amount1"));
+
+      result = engine.parseFilter("amount eq 1.5e05", "t", null);
+      result.toClause();
+      assertEquals(150_000.0, result.context().indexedParams().get("amount1"));
+    }
+
+    @Test
+    @DisplayName("Numeric literal beyond Postgres numeric range")
+    void shouldRejectHugeExponent() {
+      assertThrows(
+          IllegalArgumentException.class, () -> engine.parseFilter("n eq 1e999999999", "t", null));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> engine.parseFilter("n eq 1e-99999999999", "t", null));
+    }
+
     @Test
     @DisplayName("Boolean false value")
     void shouldHandleFalseBoolean() {
@@ -672,4 +745,276 @@ class ScimEngineTest {
       assertEquals("t.created_at = CAST(:createdAt1 AS timestamptz)", timestampString.toClause());
     }
   }
+
+  @Nested
+  @DisplayName("Keyset Pagination Tests")
+  class KeysetPaginationTests {
+
+    private static final String ID = "123e4567-e89b-12d3-a456-426614174000";
+
+    @Test
+    @DisplayName("First page orders by sort column with tiebreaker")
+    void shouldBuildFirstPage() {
+      var page =
+          engine.parsePage(
+              "active eq true",
+              "t",
+              new PageRequest("userName", SortOrder.ASCENDING, 1, 50, null),
+              null);
+      assertEquals(
+          "WHERE t.active = :active1 ORDER BY t.user_name ASC NULLS LAST, t.id ASC LIMIT 50",
+          page.toSql());
+      assertEquals(true, page.params().get("active1"));
+    }
+
+    @Test
+    @DisplayName("Without filter or sortBy only the tiebreaker orders")
+    void shouldOrderByTiebreakerOnly() {
+      var page = engine.parsePage(null, "t", new PageRequest(null, null, 0, 10, null), null);
+      assertNull(page.where());
+      assertEquals("ORDER BY t.id ASC LIMIT 10", page.toSql());
+      assertTrue(page.params().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Page token becomes a keyset predicate combined with the filter")
+    void shouldApplyKeysetPredicate() {
+      var first =
+          engine.parsePage(
+              "userName sw \"j\" or title eq \"x\"",
+              "t",
+              new PageRequest("userName", SortOrder.ASCENDING, 1, 2, null),
+              null);
+      var token = first.nextPageToken("john", java.util.UUID.fromString(ID));
+
+      var next =
+          engine.parsePage(
+              "userName sw \"j\" or title eq \"x\"",
+              "t",
+              new PageRequest("userName", SortOrder.ASCENDING, 1, 2, token),
+              null);
+      assertEquals(
+          "(LOWER(t.user_name) LIKE LOWER(:userName1) || '%' OR t.title = :title1) AND "
+              + "(t.user_name, t.id) > (:userName2, CAST(:id1 AS UUID))",
+          next.where().sql());
+      assertEquals("john", next.params().get("userName2"));
+      assertEquals(ID, next.params().get("id1"));
+      assertEquals(0, next.offset());
+    }
+
+    @Test
+    @DisplayName("Descending order flips the keyset comparison")
+    void shouldFlipComparisonForDescending() {
+      var token = new PageToken("createdAt", SortOrder.DESCENDING, Instant.EPOCH, 7L).encode();
+      var page =
+          engine.parsePage(
+              null, "t", new PageRequest("createdAt", SortOrder.DESCENDING, 1, 5, token), null);
+      assertEquals(
+          "WHERE (t.created_at, t.id) < (CAST(:createdAt1 AS timestamptz), :id1) "
+              + "ORDER BY t.created_at DESC NULLS LAST, t.id DESC LIMIT 5",
+          page.toSql());
+      assertEquals("1970-01-01T00:00:00Z", page.params().get("createdAt1"));
+      assertEquals(7L, page.params().get("id1"));
+    }
+
+    @Test
+    @DisplayName("Null sort value continues through the trailing NULL run")
+    void shouldContinueThroughNullSortValues() {
+      var token = new PageToken("title", null, null, 7L).encode();
+      var page = engine.parsePage(null, "t", new PageRequest("title", null, 1, 5, token), null);
+      assertEquals("(t.title IS NULL AND t.id > :id1)", page.where().sql());
+      assertNull(page.shortPageToken());
+    }
+
+    @Test
+    @DisplayName("A short page of non-null sort values continues with the NULL run")
+    void shouldContinueFromNonNullRangeToNullRun() {
+      var first = engine.parsePage(null, "t", new PageRequest("title", null, 1, 5, null), null);
+      assertNull(first.shortPageToken());
+
+      var token = first.nextPageToken("Engineer", 7L);
+      var range = engine.parsePage(null, "t", new PageRequest("title", null, 1, 5, token), null);
+      assertEquals("(t.title, t.id) > (:title1, :id1)", range.where().sql());
+
+      var nulls =
+          engine.parsePage(
+              null, "t", new PageRequest("title", null, 1, 5, range.shortPageToken()), null);
+      assertEquals(
+          "WHERE t.title IS NULL ORDER BY t.title ASC NULLS LAST, t.id ASC LIMIT 5", nulls.toSql());
+      assertTrue(nulls.params().isEmpty());
+      assertNull(nulls.shortPageToken());
+    }
+
+    @Test
+    @DisplayName("Token without sortBy compares the tiebreaker only")
+    void shouldCompareTiebreakerOnly() {
+      var token = new PageToken(null, null, null, 7L).encode();
+      var page =
+          engine.parsePage(null, "t", new PageRequest(null, null, 1, 5, token, "externalId"), null);
+      assertEquals("t.external_id > :externalId1", page.where().sql());
+      assertTrue(page.toSql().endsWith("ORDER BY t.external_id ASC LIMIT 5"));
+    }
+
+    @Test
+    @DisplayName("startIndex without token falls back to OFFSET")
+    void shouldFallBackToOffset() {
+      var page = engine.parsePage(null, "t", new PageRequest("userName", null, 21, 10, null), null);
+      assertEquals(
+          "ORDER BY t.user_name ASC NULLS LAST, t.id ASC LIMIT 10 OFFSET 20", page.toSql());
+    }
+
+    @Test
+    @DisplayName("Token issued for another sort is rejected")
+    void shouldRejectMismatchedToken() {
+      var token = new PageToken("userName", null, "a", 1L).encode();
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> engine.parsePage(null, "t", new PageRequest("title", null, 1, 5, token), null));
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              engine.parsePage(
+                  null, "t", new PageRequest("userName", SortOrder.DESCENDING, 1, 5, token), null));
+    }
+
+    @Test
+    @DisplayName("Invalid sortBy is rejected")
+    void shouldRejectInvalidSortBy() {
+      var error =
+          assertThrows(
+              ScimFilterException.class,
+              () ->
+                  engine.parsePage(
+                      null, "t", new PageRequest("user name", null, 1, 5, null), null));
+      assertEquals(4, error.position());
+    }
+  }
+
+  @Nested
+  @DisplayName("Projection Tests")
+  class ProjectionTests {
+
+    private final List<String> available =
+        List.of("id", "userName", "displayName", "photos", "meta", "name");
+
+    @Test
+    @DisplayName("Requested attributes select only their columns plus id")
+    void shouldProjectRequestedAttributes() {
+      var projection =
+          engine.parseProjection(List.of("userName", "DISPLAYNAME"), null, available, "t", null);
+      assertEquals("t.id, t.user_name, t.display_name", projection.toSql());
+    }
+
+    @Test
+    @DisplayName("Excluded attributes drop their columns")
+    void shouldDropExcludedAttributes() {
+      var projection =
+          engine.parseProjection(null, List.of("photos", "meta", "id"), available, "t", null);
+      assertEquals(
+          List.of("t.id", "t.user_name", "t.display_name", "t.name"), projection.columns());
+    }
+
+    @Test
+    @DisplayName("Sub-attribute selects the parent column and unknown names are ignored")
+    void shouldMapSubAttributesAndIgnoreUnknown() {
+      var projection =
+          engine.parseProjection(
+              List.of("name.familyName", "password"), List.of(), available, "t", null);
+      assertEquals("t.id, t.name", projection.toSql());
+    }
+
+    @Test
+    @DisplayName("Sort and tiebreaker columns are always projected")
+    void shouldIncludeSortColumns() {
+      var request = new PageRequest("meta.lastModified", null, 1, 10, null, "externalId");
+      var projection = engine.parseProjection(List.of("userName"), null, available, "t", request);
+      assertEquals("t.user_name, meta.last_modified, t.external_id", projection.toSql());
+    }
+
+    @Test
+    @DisplayName("No parameters projects every available attribute")
+    void shouldProjectEverythingByDefault() {
+      var projection = engine.parseProjection(null, null, available, "", null);
+      assertEquals("id, user_name, display_name, photos, meta, name", projection.toSql());
+    }
+
+    @Test
+    @DisplayName("Invalid available attribute is rejected")
+    void shouldRejectInvalidAttribute() {
+      var error =
+          assertThrows(
+              ScimFilterException.class,
+              () -> engine.parseProjection(null, null, List.of("user name"), "t", null));
+      assertEquals(4, error.position());
+    }
+  }
+
+  @Nested
+  @DisplayName("Large IN List Tests")
+  class LargeInListTests {
+
+    private final ScimEngine arrays = new ScimEngine(ScimEngineListener.NOOP, 3);
+
+    @Test
+    @DisplayName("Lists below the threshold bind one parameter per element")
+    void shouldExpandShortLists() {
+      var filter = arrays.parseFilter("externalId in [\"a\", \"b\"]", "t", null);
+      assertEquals("t.external_id IN (:externalId1, :externalId2)", filter.toClause());
+    }
+
+    @Test
+    @DisplayName("Lists at the threshold bind one typed array")
+    void shouldBindStringArray() {
+      var filter = arrays.parseFilter("externalId in [\"a\", \"b\", \"c\"]", "t", null);
+      assertEquals(
+          "t.external_id IN (SELECT unnest(CAST(:externalId1 AS text[])))", filter.toClause());
+      assertArrayEquals(
+          new String[] {"a", "b", "c"},
+          (Object[]) filter.context().indexedParams().get("externalId1"));
+    }
+
+    @Test
+    @DisplayName("Element type selects the array type")
+    void shouldTypeArrays() {
+      assertEquals(
+          "t.level IN (SELECT unnest(CAST(:level1 AS bigint[])))",
+          arrays.parseFilter("level in [1, 2, 3]", "t", null).toClause());
+      assertEquals(
+          "t.score IN (SELECT unnest(CAST(:score1 AS numeric[])))",
+          arrays.parseFilter("score in [1, 2.5, 3]", "t", null).toClause());
+      var uuids =
+          arrays.parseFilter(
+              "id in [\"#123e4567-e89b-12d3-a456-426614174000\","
+                  + " \"#550e8400-e29b-41d4-a716-446655440000\","
+                  + " \"#6ba7b810-9dad-11d1-80b4-00c04fd430c8\"]",
+              "t",
+              null);
+      assertEquals("t.id IN (SELECT unnest(CAST(:id1 AS uuid[])))", uuids.toClause());
+      assertEquals(
+          "550e8400-e29b-41d4-a716-446655440000",
+          ((Object[]) uuids.context().indexedParams().get("id1"))[1]);
+    }
+
+    @Test
+    @DisplayName("Mixed element types keep one parameter per element")
+    void shouldExpandMixedLists() {
+      var filter = arrays.parseFilter("code in [\"a\", 1, true]", "t", null);
+      assertEquals("t.code IN (:code1, :code2, :code3)", filter.toClause());
+    }
+
+    @Test
+    @DisplayName("Default threshold keeps a 20k element list to one parameter")
+    void shouldHandleHugeLists() {
+      var ids = new StringBuilder("externalId in [");
+      for (var i = 0; i < 20_000; i++) {
+        ids.append(i == 0 ? "" : ", ").append('"').append("ext-").append(i).append('"');
+      }
+      var filter = engine.parseFilter(ids.append(']').toString(), "t", null);
+
+      assertEquals(
+          "t.external_id IN (SELECT unnest(CAST(:externalId1 AS text[])))", filter.toClause());
+      assertEquals(1, filter.context().indexedParams().size());
+      assertEquals(1, engine.compileFilter(ids.toString(), null).bind("t").size());
+    }
+  }
 }
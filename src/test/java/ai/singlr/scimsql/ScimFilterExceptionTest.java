@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ScimFilterException")
+class ScimFilterExceptionTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  private ScimFilterException reject(String filter) {
+    return assertThrows(ScimFilterException.class, () -> engine.parseFilter(filter, "t", null));
+  }
+
+  @Test
+  @DisplayName("rejects untokenizable input before parsing")
+  void shouldRejectGarbageInPrecheck() {
+    var cases =
+        List.of(
+            List.of("", "0", ""),
+            List.of("#userName eq 1", "0", "#"),
+            List.of(" userName pr", "0", " "),
+            List.of("userName\teq 1", "8", "\t"),
+            List.of("userName eq 1; DROP TABLE users", "13", ";"),
+            List.of("userName eq \"a\\q\"", "14", "\\q"),
+            List.of("userName eq \"abc", "12", "\"abc"),
+            List.of("userName eq \"ok\" and title eq 'x'", "30", "'"));
+    for (var c : cases) {
+      var error = reject(c.get(0));
+      assertEquals(Integer.parseInt(c.get(1)), error.position(), c.get(0));
+      assertEquals(c.get(2).isEmpty() ? null : c.get(2), error.offendingText(), c.get(0));
+    }
+    assertThrows(IllegalArgumentException.class, () -> engine.parseFilter(null, "t", null));
+  }
+
+  @Test
+  @DisplayName("reports the offending token and the expected ones")
+  void shouldReportParserErrors() {
+    var error = reject("userName xx \"a\"");
+    assertEquals(9, error.position());
+    assertEquals("xx", error.offendingText());
+    assertTrue(error.expectedTokens().contains("ATTRNAME"), error.expectedTokens().toString());
+    assertTrue(
+        error.getMessage().startsWith("Invalid filter syntax at position 9: unexpected 'xx'"));
+
+    var truncated = reject("userName eq");
+    assertEquals(11, truncated.position());
+    assertNull(truncated.offendingText());
+    assertTrue(truncated.getMessage().contains("unexpected end of input"));
+    assertEquals(List.of("' '"), truncated.expectedTokens());
+  }
+
+  @Test
+  @DisplayName("carries no stack trace")
+  void shouldNotCaptureStackTrace() {
+    assertEquals(0, reject("userName eq").getStackTrace().length);
+    assertEquals(0, reject("%%%").getStackTrace().length);
+    assertThrows(IllegalArgumentException.class, () -> engine.compileFilter("userName eq", null));
+  }
+
+  @Test
+  @DisplayName("serializes with its expected tokens")
+  void shouldSerialize() throws Exception {
+    var error = reject("userName eq");
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new ObjectOutputStream(bytes)) {
+      out.writeObject(error);
+    }
+    try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      var copy = (ScimFilterException) in.readObject();
+      assertEquals(error.getMessage(), copy.getMessage());
+      assertEquals(List.of("' '"), copy.expectedTokens());
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ScimTraining")
+class ScimTrainingTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("every training filter is valid")
+  void shouldParseTrainingFilters() {
+    for (var expression : ScimTraining.FILTERS) {
+      assertDoesNotThrow(() -> engine.parseFilter(expression, "t", null).toClause(), expression);
+    }
+  }
+
+  @Test
+  @DisplayName("every invalid training filter is rejected")
+  void shouldRejectInvalidFilters() {
+    for (var expression : ScimTraining.INVALID) {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> engine.parseFilter(expression, "t", null),
+          expression);
+    }
+  }
+
+  @Test
+  @DisplayName("workload runs end to end")
+  void shouldRunWorkload() {
+    assertTrue(ScimTraining.run(1) > 0);
+  }
+}
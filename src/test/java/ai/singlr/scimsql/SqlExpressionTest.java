@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 Singular
+ * SPDX-License-Identifier: MIT
+ */
+
+package ai.singlr.scimsql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SqlExpression")
+class SqlExpressionTest {
+
+  private final ScimEngine engine = new ScimEngine();
+
+  @Test
+  @DisplayName("builds a typed tree with flattened conjunctions")
+  void shouldBuildTypedTree() {
+    var expression =
+        SqlExpression.of(
+            engine.parseFilter(
+                "userName eq \"john\" and (age gt 21 and eh.userId pr) and not (title co \"x\")",
+                "t",
+                null));
+
+    var and = assertInstanceOf(SqlExpression.And.class, expression);
+    assertEquals(4, and.operands().size());
+    assertEquals(
+        new SqlExpression.Comparison(
+            new SqlExpression.Column(List.of("t", "user_name")),
+            SqlExpression.Operator.EQUAL,
+            new SqlExpression.Bind("john", ValueFilter.ValueType.STRING)),
+        and.operands().get(0));
+    assertEquals(
+        new SqlExpression.IsNotNull(new SqlExpression.Column(List.of("eh", "user_id"))),
+        and.operands().get(2));
+    var not = assertInstanceOf(SqlExpression.Not.class, and.operands().get(3));
+    assertEquals(
+        SqlExpression.LikeMatch.CONTAINS,
+        assertInstanceOf(SqlExpression.Like.class, not.operand()).match());
+  }
+
+  @Test
+  @DisplayName("JSON equality becomes containment")
+  void shouldMapJsonEquality() {
+    var comparison =
+        assertInstanceOf(
+            SqlExpression.Comparison.class,
+            SqlExpression.of(engine.parseFilter("meta eq \"${\\\"a\\\": 1}\"", "", null)));
+
+    assertEquals(SqlExpression.Operator.JSON_CONTAINS, comparison.operator());
+    assertEquals("meta", comparison.column().name());
+  }
+
+  @Test
+  @DisplayName("rejects comparisons from a compare filter builder")
+  void shouldRejectCustomComparisons() {
+    var filter =
+        engine.parseFilter("a eq 1 and tags eq \"x\"", "", ComparisonFilter.ListFilter::new);
+
+    assertThrows(IllegalArgumentException.class, () -> SqlExpression.of(filter));
+  }
+
+  @Test
+  @DisplayName("renders the same SQL as the compiled filter")
+  void shouldRenderLikeCompiledFilter() {
+    var filters =
+        List.of(
+            "userName eq \"john\" and (age gt 21 or id eq \"#123e4567-e89b-12d3-a456-426614174000\")",
+            "name co \"a\" or name sw \"b\" or name ew \"c\"",
+            "not (active eq true) and created ge \"@2025-01-01T00:00:00Z\"",
+            "id in [\"#123e4567-e89b-12d3-a456-426614174000\", \"#550e8400-e29b-41d4-a716-446655440000\"]",
+            "meta eq \"${\\\"a\\\": 1}\" and emails.value pr and age ne 3 and age lt 9 and age le 8");
+    for (var filter : filters) {
+      assertRendersLikeCompiledFilter(filter);
+    }
+  }
+
+  @Test
+  @DisplayName("parenthesizes nested logical operands")
+  void shouldParenthesizeNestedOperands() {
+    var sql =
+        new SqlRenderer(3)
+            .render(
+                SqlExpression.of(engine.parseFilter("a eq 1 or (b eq 2 and c eq 3)", "", null)));
+
+    assertEquals("a = $3 OR (b = $4 AND c = $5)", sql);
+  }
+
+  private void assertRendersLikeCompiledFilter(String filter) {
+    var renderer = new SqlRenderer();
+    var sql = renderer.render(SqlExpression.of(engine.parseFilter(filter, "t", null)));
+    var compiled = engine.compileFilter(filter, null);
+
+    assertEquals(compiled.positionalClause("t", 1), sql);
+    assertEquals(compiled.parameterCount(), renderer.binds().size());
+    for (var i = 0; i < compiled.parameterCount(); i++) {
+      assertEquals(compiled.parameterValue(i), renderer.binds().get(i).value());
+      assertEquals(compiled.parameterType(i), renderer.binds().get(i).type());
+    }
+  }
+}